@@ -0,0 +1,29 @@
+package com.brandongogetap.autojackson;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Class-level options for the code AutoJackson generates. Only needed when changing a default.
+ */
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface AutoJackson {
+
+    /**
+     * Reuses Builder instances from a per-thread pool when Jackson deserializes through
+     * {@code @JsonDeserialize(builder = AutoValue_X.Builder.class)}, so each object only allocates the immutable
+     * value. Builders created directly with {@code new} are never pooled.
+     */
+    boolean pooledBuilder() default false;
+
+    /**
+     * For classes with a generated deserializer ({@code @JsonDeserialize(using = XDeserializer.class)}): once every
+     * property has been read, the rest of the object is skipped without looking at field names. Meant for reading a
+     * few properties out of wide payloads; a property repeated after that point is ignored rather than overriding the
+     * earlier value.
+     */
+    boolean projection() default false;
+}
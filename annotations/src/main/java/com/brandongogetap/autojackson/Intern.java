@@ -0,0 +1,32 @@
+package com.brandongogetap.autojackson;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Canonicalizes a {@code String} property read by the generated deserializer
+ * ({@code @JsonDeserialize(using = XDeserializer.class)}). Values are looked up by their characters in a small
+ * per-property cache before a {@code String} is created, so repeated values such as status or region codes share one
+ * instance and allocate nothing once cached. Meant for low-cardinality values: a value evicted by a colliding one is
+ * simply created again.
+ * <p>
+ * On an AutoValue class with a generated deserializer, canonicalizes the instances it builds instead: each is looked up
+ * by {@code equals} in a per-class cache that holds its entries weakly, and a value equal to a cached one is dropped in
+ * favor of it. Meant for small value types repeated throughout large documents, such as a currency or a region.
+ * Classes with {@code @LazyProperty} properties cannot be interned, as comparing them would decode those properties.
+ * <p>
+ * Generated code uses {@code StringCanonicalizer} and {@code InstanceInterner} from the {@code auto-jackson-runtime}
+ * artifact.
+ */
+@Retention(RetentionPolicy.CLASS)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface Intern {
+
+    /**
+     * The number of cache slots, rounded up to a power of two. A value evicts whatever its slot held, so this bounds
+     * how many distinct values are cached at once.
+     */
+    int capacity() default 256;
+}
@@ -0,0 +1,20 @@
+package com.brandongogetap.autojackson;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Defers decoding of a property until its accessor is first called. The generated deserializer
+ * ({@code @JsonDeserialize(using = XDeserializer.class)}) only buffers the property's tokens, and
+ * {@code AutoValue_X} decodes them once, on first access, from any thread. Meant for large sub-objects that most
+ * readers never look at.
+ * <p>
+ * The property must be {@code @Nullable}: it is null in the AutoValue fields until decoded. Decoding uses the codec of
+ * the parser it was read from, and a failure is thrown from the accessor as an {@link IllegalStateException}.
+ */
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.METHOD)
+public @interface LazyProperty {
+}
@@ -0,0 +1,17 @@
+package com.brandongogetap.autojackson;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks the enum constant that generated deserializers ({@code @JsonDeserialize(using = XDeserializer.class)}) return
+ * for a string that matches none of the enum's JSON names. Without it, unknown values are left to Jackson, which
+ * fails or returns null depending on {@code READ_UNKNOWN_ENUM_VALUES_AS_NULL}. At most one constant per enum may be
+ * marked.
+ */
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.FIELD)
+public @interface UnknownEnumValue {
+}
@@ -0,0 +1,109 @@
+package com.brandongogetap.autojackson.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+
+/**
+ * Compares reading the same documents through the generated Builder (reflective databind), the generated streaming
+ * deserializer, and a hand-written deserializer where one exists.
+ */
+@State(Scope.Benchmark)
+public class DeserializationBenchmark {
+
+    private byte[] small;
+    private byte[] wide;
+    private byte[] nested;
+    private byte[] array;
+
+    private ObjectReader builderSmall;
+    private ObjectReader builderWide;
+    private ObjectReader builderNested;
+    private ObjectReader builderArray;
+    private ObjectReader generatedSmall;
+    private ObjectReader generatedWide;
+    private ObjectReader generatedNested;
+    private ObjectReader generatedArray;
+    private ObjectReader generatedWidePrefix;
+    private ObjectReader projectionWidePrefix;
+    private ObjectReader handWrittenSmall;
+
+    @Setup
+    public void setUp() throws IOException {
+        small = Payloads.small();
+        wide = Payloads.wide();
+        nested = Payloads.nested();
+        array = Payloads.array();
+
+        builderSmall = Mappers.builder().readerFor(Small.class);
+        builderWide = Mappers.builder().readerFor(Wide.class);
+        builderNested = Mappers.builder().readerFor(Node.class);
+        builderArray = Mappers.builder().readerFor(Series.class);
+        generatedSmall = Mappers.generated().readerFor(Small.class);
+        generatedWide = Mappers.generated().readerFor(Wide.class);
+        generatedNested = Mappers.generated().readerFor(Node.class);
+        generatedArray = Mappers.generated().readerFor(Series.class);
+        generatedWidePrefix = Mappers.generated().readerFor(WidePrefix.class);
+        projectionWidePrefix = Mappers.generated().readerFor(WidePrefixProjection.class);
+        handWrittenSmall = Mappers.handWritten().readerFor(Small.class);
+    }
+
+    @Benchmark
+    public Small smallBuilder() throws IOException {
+        return builderSmall.readValue(small);
+    }
+
+    @Benchmark
+    public Small smallGenerated() throws IOException {
+        return generatedSmall.readValue(small);
+    }
+
+    @Benchmark
+    public Small smallHandWritten() throws IOException {
+        return handWrittenSmall.readValue(small);
+    }
+
+    @Benchmark
+    public Wide wideBuilder() throws IOException {
+        return builderWide.readValue(wide);
+    }
+
+    @Benchmark
+    public Wide wideGenerated() throws IOException {
+        return generatedWide.readValue(wide);
+    }
+
+    @Benchmark
+    public WidePrefix widePrefixGenerated() throws IOException {
+        return generatedWidePrefix.readValue(wide);
+    }
+
+    @Benchmark
+    public WidePrefixProjection widePrefixProjection() throws IOException {
+        return projectionWidePrefix.readValue(wide);
+    }
+
+    @Benchmark
+    public Node nestedBuilder() throws IOException {
+        return builderNested.readValue(nested);
+    }
+
+    @Benchmark
+    public Node nestedGenerated() throws IOException {
+        return generatedNested.readValue(nested);
+    }
+
+    @Benchmark
+    public Series arrayBuilder() throws IOException {
+        return builderArray.readValue(array);
+    }
+
+    @Benchmark
+    public Series arrayGenerated() throws IOException {
+        return generatedArray.readValue(array);
+    }
+}
@@ -0,0 +1,119 @@
+package com.brandongogetap.autojackson.benchmarks;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+
+/**
+ * Reads and writes the same models as JSON, Smile and CBOR, through the Builder path and the generated code. The
+ * binary documents are converted from the JSON ones, so every format carries the same values.
+ */
+@State(Scope.Benchmark)
+public class FormatBenchmark {
+
+    @Param({"json", "smile", "cbor"})
+    public String format;
+
+    private byte[] small;
+    private byte[] wide;
+    private byte[] array;
+    private Small smallValue;
+    private Wide wideValue;
+    private Series arrayValue;
+
+    private ObjectReader builderSmall;
+    private ObjectReader builderWide;
+    private ObjectReader builderArray;
+    private ObjectReader generatedSmall;
+    private ObjectReader generatedWide;
+    private ObjectReader generatedArray;
+    private ObjectWriter generated;
+
+    @Setup
+    public void setUp() throws IOException {
+        JsonFactory factory = factory(format);
+        ObjectMapper json = Mappers.generated();
+        ObjectMapper mapper = Mappers.generated(factory);
+        small = mapper.writeValueAsBytes(json.readTree(Payloads.small()));
+        wide = mapper.writeValueAsBytes(json.readTree(Payloads.wide()));
+        array = mapper.writeValueAsBytes(json.readTree(Payloads.array()));
+        smallValue = mapper.readValue(small, Small.class);
+        wideValue = mapper.readValue(wide, Wide.class);
+        arrayValue = mapper.readValue(array, Series.class);
+
+        ObjectMapper builder = Mappers.builder(factory);
+        builderSmall = builder.readerFor(Small.class);
+        builderWide = builder.readerFor(Wide.class);
+        builderArray = builder.readerFor(Series.class);
+        generatedSmall = mapper.readerFor(Small.class);
+        generatedWide = mapper.readerFor(Wide.class);
+        generatedArray = mapper.readerFor(Series.class);
+        generated = mapper.writer();
+    }
+
+    private static JsonFactory factory(String format) {
+        switch (format) {
+            case "smile":
+                return new SmileFactory();
+            case "cbor":
+                return new CBORFactory();
+            default:
+                return new JsonFactory();
+        }
+    }
+
+    @Benchmark
+    public Small readSmallBuilder() throws IOException {
+        return builderSmall.readValue(small);
+    }
+
+    @Benchmark
+    public Small readSmallGenerated() throws IOException {
+        return generatedSmall.readValue(small);
+    }
+
+    @Benchmark
+    public Wide readWideBuilder() throws IOException {
+        return builderWide.readValue(wide);
+    }
+
+    @Benchmark
+    public Wide readWideGenerated() throws IOException {
+        return generatedWide.readValue(wide);
+    }
+
+    @Benchmark
+    public Series readArrayBuilder() throws IOException {
+        return builderArray.readValue(array);
+    }
+
+    @Benchmark
+    public Series readArrayGenerated() throws IOException {
+        return generatedArray.readValue(array);
+    }
+
+    @Benchmark
+    public byte[] writeSmallGenerated() throws IOException {
+        return generated.writeValueAsBytes(smallValue);
+    }
+
+    @Benchmark
+    public byte[] writeWideGenerated() throws IOException {
+        return generated.writeValueAsBytes(wideValue);
+    }
+
+    @Benchmark
+    public byte[] writeArrayGenerated() throws IOException {
+        return generated.writeValueAsBytes(arrayValue);
+    }
+}
@@ -0,0 +1,85 @@
+package com.brandongogetap.autojackson.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+
+/**
+ * Compares writing the same values through Jackson's BeanSerializer, the generated serializer, and a hand-written
+ * serializer where one exists.
+ */
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    private Small small;
+    private Wide wide;
+    private Node nested;
+    private Series array;
+
+    private ObjectWriter builder;
+    private ObjectWriter generated;
+    private ObjectWriter handWritten;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper mapper = Mappers.generated();
+        small = mapper.readValue(Payloads.small(), Small.class);
+        wide = mapper.readValue(Payloads.wide(), Wide.class);
+        nested = mapper.readValue(Payloads.nested(), Node.class);
+        array = mapper.readValue(Payloads.array(), Series.class);
+
+        builder = Mappers.builder().writer();
+        generated = mapper.writer();
+        handWritten = Mappers.handWritten().writer();
+    }
+
+    @Benchmark
+    public byte[] smallBuilder() throws IOException {
+        return builder.writeValueAsBytes(small);
+    }
+
+    @Benchmark
+    public byte[] smallGenerated() throws IOException {
+        return generated.writeValueAsBytes(small);
+    }
+
+    @Benchmark
+    public byte[] smallHandWritten() throws IOException {
+        return handWritten.writeValueAsBytes(small);
+    }
+
+    @Benchmark
+    public byte[] wideBuilder() throws IOException {
+        return builder.writeValueAsBytes(wide);
+    }
+
+    @Benchmark
+    public byte[] wideGenerated() throws IOException {
+        return generated.writeValueAsBytes(wide);
+    }
+
+    @Benchmark
+    public byte[] nestedBuilder() throws IOException {
+        return builder.writeValueAsBytes(nested);
+    }
+
+    @Benchmark
+    public byte[] nestedGenerated() throws IOException {
+        return generated.writeValueAsBytes(nested);
+    }
+
+    @Benchmark
+    public byte[] arrayBuilder() throws IOException {
+        return builder.writeValueAsBytes(array);
+    }
+
+    @Benchmark
+    public byte[] arrayGenerated() throws IOException {
+        return generated.writeValueAsBytes(array);
+    }
+}
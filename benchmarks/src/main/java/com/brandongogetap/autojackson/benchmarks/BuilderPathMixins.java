@@ -0,0 +1,40 @@
+package com.brandongogetap.autojackson.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+/**
+ * Mix-ins that point the benchmark models back at the generated Builder and Jackson's reflective BeanSerializer, so
+ * the same classes can be measured on both paths.
+ */
+final class BuilderPathMixins {
+
+    @JsonDeserialize(builder = AutoValue_Small.Builder.class)
+    @JsonSerialize(using = JsonSerializer.None.class)
+    static abstract class SmallMixin {
+    }
+
+    @JsonDeserialize(builder = AutoValue_Wide.Builder.class)
+    @JsonSerialize(using = JsonSerializer.None.class)
+    static abstract class WideMixin {
+    }
+
+    @JsonDeserialize(builder = AutoValue_Node.Builder.class)
+    @JsonSerialize(using = JsonSerializer.None.class)
+    static abstract class NodeMixin {
+    }
+
+    @JsonDeserialize(builder = AutoValue_Series.Builder.class)
+    @JsonSerialize(using = JsonSerializer.None.class)
+    static abstract class SeriesMixin {
+    }
+
+    @JsonDeserialize(builder = AutoValue_Point.Builder.class)
+    @JsonSerialize(using = JsonSerializer.None.class)
+    static abstract class PointMixin {
+    }
+
+    private BuilderPathMixins() {
+    }
+}
@@ -0,0 +1,46 @@
+package com.brandongogetap.autojackson.benchmarks;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+
+import java.io.IOException;
+
+/**
+ * The best case for {@link Small}: what someone would write by hand against the streaming API, with no fallbacks.
+ */
+final class HandWrittenSmallDeserializer extends JsonDeserializer<Small> {
+
+    @Override
+    public Small deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        long id = 0L;
+        String name = null;
+        boolean active = false;
+        double score = 0D;
+        if (parser.getCurrentToken() == JsonToken.START_OBJECT) {
+            parser.nextToken();
+        }
+        for (; parser.getCurrentToken() == JsonToken.FIELD_NAME; parser.nextToken()) {
+            String fieldName = parser.getCurrentName();
+            parser.nextToken();
+            switch (fieldName) {
+                case "id":
+                    id = parser.getLongValue();
+                    break;
+                case "name":
+                    name = parser.getText();
+                    break;
+                case "active":
+                    active = parser.getCurrentToken() == JsonToken.VALUE_TRUE;
+                    break;
+                case "score":
+                    score = parser.getDoubleValue();
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+        return Small.create(id, name, active, score);
+    }
+}
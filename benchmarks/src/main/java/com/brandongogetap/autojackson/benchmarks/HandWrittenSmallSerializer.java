@@ -0,0 +1,20 @@
+package com.brandongogetap.autojackson.benchmarks;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+import java.io.IOException;
+
+final class HandWrittenSmallSerializer extends JsonSerializer<Small> {
+
+    @Override
+    public void serialize(Small value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("id", value.id());
+        generator.writeStringField("name", value.name());
+        generator.writeBooleanField("active", value.active());
+        generator.writeNumberField("score", value.score());
+        generator.writeEndObject();
+    }
+}
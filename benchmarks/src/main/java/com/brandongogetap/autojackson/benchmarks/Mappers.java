@@ -0,0 +1,57 @@
+package com.brandongogetap.autojackson.benchmarks;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+
+/**
+ * One {@link ObjectMapper} per code path under test.
+ */
+public final class Mappers {
+
+    /**
+     * Uses the generated deserializers and serializers the models are annotated with.
+     */
+    public static ObjectMapper generated() {
+        return generated(new JsonFactory());
+    }
+
+    /**
+     * {@link #generated()} over another format, such as Smile or CBOR.
+     */
+    public static ObjectMapper generated(JsonFactory factory) {
+        return new ObjectMapper(factory);
+    }
+
+    /**
+     * Uses {@code @JsonDeserialize(builder = AutoValue_X.Builder.class)} and Jackson's BeanSerializer.
+     */
+    public static ObjectMapper builder() {
+        return builder(new JsonFactory());
+    }
+
+    /**
+     * {@link #builder()} over another format, such as Smile or CBOR.
+     */
+    public static ObjectMapper builder(JsonFactory factory) {
+        return new ObjectMapper(factory)
+                .addMixIn(Small.class, BuilderPathMixins.SmallMixin.class)
+                .addMixIn(Wide.class, BuilderPathMixins.WideMixin.class)
+                .addMixIn(Node.class, BuilderPathMixins.NodeMixin.class)
+                .addMixIn(Series.class, BuilderPathMixins.SeriesMixin.class)
+                .addMixIn(Point.class, BuilderPathMixins.PointMixin.class);
+    }
+
+    /**
+     * Uses the hand-written baseline for {@link Small}.
+     */
+    public static ObjectMapper handWritten() {
+        SimpleModule module = new SimpleModule()
+                .addDeserializer(Small.class, new HandWrittenSmallDeserializer())
+                .addSerializer(Small.class, new HandWrittenSmallSerializer());
+        return new ObjectMapper().registerModule(module);
+    }
+
+    private Mappers() {
+    }
+}
@@ -0,0 +1,24 @@
+package com.brandongogetap.autojackson.benchmarks;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.google.auto.value.AutoValue;
+
+import javax.annotation.Nullable;
+
+@AutoValue
+@JsonDeserialize(using = NodeDeserializer.class)
+@JsonSerialize(using = AutoValue_Node.Serializer.class)
+public abstract class Node {
+
+    @JsonProperty("id")
+    public abstract long id();
+
+    @JsonProperty("name")
+    public abstract String name();
+
+    @Nullable
+    @JsonProperty("child")
+    public abstract Node child();
+}
@@ -0,0 +1,104 @@
+package com.brandongogetap.autojackson.benchmarks;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+/**
+ * Builds the JSON documents and model instances the benchmarks run against. Everything is deterministic so results
+ * are comparable between runs.
+ */
+public final class Payloads {
+
+    public static final int WIDE_PROPERTY_COUNT = 52;
+    public static final int NESTING_DEPTH = 32;
+    public static final int ARRAY_SIZE = 10000;
+
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    public static byte[] small() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JsonGenerator generator = FACTORY.createGenerator(out);
+        writeSmall(generator, 42L);
+        generator.close();
+        return out.toByteArray();
+    }
+
+    public static byte[] wide() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JsonGenerator generator = FACTORY.createGenerator(out);
+        generator.writeStartObject();
+        for (int i = 0; i < WIDE_PROPERTY_COUNT; i++) {
+            String name = String.format("p%02d", i);
+            switch (i % 5) {
+                case 0:
+                    generator.writeNumberField(name, i);
+                    break;
+                case 1:
+                    generator.writeNumberField(name, 1000000000000L + i);
+                    break;
+                case 2:
+                    generator.writeNumberField(name, i + 0.25D);
+                    break;
+                case 3:
+                    generator.writeBooleanField(name, i % 2 == 0);
+                    break;
+                default:
+                    generator.writeStringField(name, "value-" + i);
+            }
+        }
+        generator.writeEndObject();
+        generator.close();
+        return out.toByteArray();
+    }
+
+    public static byte[] nested() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JsonGenerator generator = FACTORY.createGenerator(out);
+        for (int depth = 0; depth < NESTING_DEPTH; depth++) {
+            generator.writeStartObject();
+            generator.writeNumberField("id", depth);
+            generator.writeStringField("name", "node-" + depth);
+            if (depth < NESTING_DEPTH - 1) {
+                generator.writeFieldName("child");
+            }
+        }
+        for (int depth = 0; depth < NESTING_DEPTH; depth++) {
+            generator.writeEndObject();
+        }
+        generator.close();
+        return out.toByteArray();
+    }
+
+    public static byte[] array() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JsonGenerator generator = FACTORY.createGenerator(out);
+        generator.writeStartObject();
+        generator.writeStringField("name", "series");
+        generator.writeArrayFieldStart("points");
+        for (int i = 0; i < ARRAY_SIZE; i++) {
+            generator.writeStartObject();
+            generator.writeNumberField("timestamp", 1462406400000L + i * 1000L);
+            generator.writeNumberField("value", i * 0.5D);
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+        generator.close();
+        return out.toByteArray();
+    }
+
+    private static void writeSmall(JsonGenerator generator, long id) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("id", id);
+        generator.writeStringField("name", "small-" + id);
+        generator.writeBooleanField("active", true);
+        generator.writeNumberField("score", id / 2D);
+        generator.writeEndObject();
+    }
+
+    private Payloads() {
+    }
+}
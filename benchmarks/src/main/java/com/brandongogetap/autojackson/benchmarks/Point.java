@@ -0,0 +1,18 @@
+package com.brandongogetap.autojackson.benchmarks;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.google.auto.value.AutoValue;
+
+@AutoValue
+@JsonDeserialize(using = PointDeserializer.class)
+@JsonSerialize(using = AutoValue_Point.Serializer.class)
+public abstract class Point {
+
+    @JsonProperty("timestamp")
+    public abstract long timestamp();
+
+    @JsonProperty("value")
+    public abstract double value();
+}
@@ -0,0 +1,20 @@
+package com.brandongogetap.autojackson.benchmarks;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.google.auto.value.AutoValue;
+
+import java.util.List;
+
+@AutoValue
+@JsonDeserialize(using = SeriesDeserializer.class)
+@JsonSerialize(using = AutoValue_Series.Serializer.class)
+public abstract class Series {
+
+    @JsonProperty("name")
+    public abstract String name();
+
+    @JsonProperty("points")
+    public abstract List<Point> points();
+}
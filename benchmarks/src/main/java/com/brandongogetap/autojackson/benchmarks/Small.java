@@ -0,0 +1,28 @@
+package com.brandongogetap.autojackson.benchmarks;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.google.auto.value.AutoValue;
+
+@AutoValue
+@JsonDeserialize(using = SmallDeserializer.class)
+@JsonSerialize(using = AutoValue_Small.Serializer.class)
+public abstract class Small {
+
+    @JsonProperty("id")
+    public abstract long id();
+
+    @JsonProperty("name")
+    public abstract String name();
+
+    @JsonProperty("active")
+    public abstract boolean active();
+
+    @JsonProperty("score")
+    public abstract double score();
+
+    static Small create(long id, String name, boolean active, double score) {
+        return new AutoValue_Small(id, name, active, score);
+    }
+}
@@ -0,0 +1,171 @@
+package com.brandongogetap.autojackson.benchmarks;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.google.auto.value.AutoValue;
+
+/**
+ * 52 properties cycling through int, long, double, boolean and String.
+ */
+@AutoValue
+@JsonDeserialize(using = WideDeserializer.class)
+@JsonSerialize(using = AutoValue_Wide.Serializer.class)
+public abstract class Wide {
+
+    @JsonProperty("p00")
+    public abstract int p00();
+
+    @JsonProperty("p01")
+    public abstract long p01();
+
+    @JsonProperty("p02")
+    public abstract double p02();
+
+    @JsonProperty("p03")
+    public abstract boolean p03();
+
+    @JsonProperty("p04")
+    public abstract String p04();
+
+    @JsonProperty("p05")
+    public abstract int p05();
+
+    @JsonProperty("p06")
+    public abstract long p06();
+
+    @JsonProperty("p07")
+    public abstract double p07();
+
+    @JsonProperty("p08")
+    public abstract boolean p08();
+
+    @JsonProperty("p09")
+    public abstract String p09();
+
+    @JsonProperty("p10")
+    public abstract int p10();
+
+    @JsonProperty("p11")
+    public abstract long p11();
+
+    @JsonProperty("p12")
+    public abstract double p12();
+
+    @JsonProperty("p13")
+    public abstract boolean p13();
+
+    @JsonProperty("p14")
+    public abstract String p14();
+
+    @JsonProperty("p15")
+    public abstract int p15();
+
+    @JsonProperty("p16")
+    public abstract long p16();
+
+    @JsonProperty("p17")
+    public abstract double p17();
+
+    @JsonProperty("p18")
+    public abstract boolean p18();
+
+    @JsonProperty("p19")
+    public abstract String p19();
+
+    @JsonProperty("p20")
+    public abstract int p20();
+
+    @JsonProperty("p21")
+    public abstract long p21();
+
+    @JsonProperty("p22")
+    public abstract double p22();
+
+    @JsonProperty("p23")
+    public abstract boolean p23();
+
+    @JsonProperty("p24")
+    public abstract String p24();
+
+    @JsonProperty("p25")
+    public abstract int p25();
+
+    @JsonProperty("p26")
+    public abstract long p26();
+
+    @JsonProperty("p27")
+    public abstract double p27();
+
+    @JsonProperty("p28")
+    public abstract boolean p28();
+
+    @JsonProperty("p29")
+    public abstract String p29();
+
+    @JsonProperty("p30")
+    public abstract int p30();
+
+    @JsonProperty("p31")
+    public abstract long p31();
+
+    @JsonProperty("p32")
+    public abstract double p32();
+
+    @JsonProperty("p33")
+    public abstract boolean p33();
+
+    @JsonProperty("p34")
+    public abstract String p34();
+
+    @JsonProperty("p35")
+    public abstract int p35();
+
+    @JsonProperty("p36")
+    public abstract long p36();
+
+    @JsonProperty("p37")
+    public abstract double p37();
+
+    @JsonProperty("p38")
+    public abstract boolean p38();
+
+    @JsonProperty("p39")
+    public abstract String p39();
+
+    @JsonProperty("p40")
+    public abstract int p40();
+
+    @JsonProperty("p41")
+    public abstract long p41();
+
+    @JsonProperty("p42")
+    public abstract double p42();
+
+    @JsonProperty("p43")
+    public abstract boolean p43();
+
+    @JsonProperty("p44")
+    public abstract String p44();
+
+    @JsonProperty("p45")
+    public abstract int p45();
+
+    @JsonProperty("p46")
+    public abstract long p46();
+
+    @JsonProperty("p47")
+    public abstract double p47();
+
+    @JsonProperty("p48")
+    public abstract boolean p48();
+
+    @JsonProperty("p49")
+    public abstract String p49();
+
+    @JsonProperty("p50")
+    public abstract int p50();
+
+    @JsonProperty("p51")
+    public abstract long p51();
+}
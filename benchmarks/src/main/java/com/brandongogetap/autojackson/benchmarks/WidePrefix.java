@@ -0,0 +1,22 @@
+package com.brandongogetap.autojackson.benchmarks;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.google.auto.value.AutoValue;
+
+/**
+ * Reads the first three properties of the {@link Wide} payload and ignores the rest.
+ */
+@AutoValue
+@JsonDeserialize(using = WidePrefixDeserializer.class)
+public abstract class WidePrefix {
+
+    @JsonProperty("p00")
+    public abstract int p00();
+
+    @JsonProperty("p01")
+    public abstract long p01();
+
+    @JsonProperty("p02")
+    public abstract double p02();
+}
@@ -0,0 +1,24 @@
+package com.brandongogetap.autojackson.benchmarks;
+
+import com.brandongogetap.autojackson.AutoJackson;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.google.auto.value.AutoValue;
+
+/**
+ * {@link WidePrefix} with projection enabled, so the remaining 49 fields are skipped without name dispatch.
+ */
+@AutoValue
+@AutoJackson(projection = true)
+@JsonDeserialize(using = WidePrefixProjectionDeserializer.class)
+public abstract class WidePrefixProjection {
+
+    @JsonProperty("p00")
+    public abstract int p00();
+
+    @JsonProperty("p01")
+    public abstract long p01();
+
+    @JsonProperty("p02")
+    public abstract double p02();
+}
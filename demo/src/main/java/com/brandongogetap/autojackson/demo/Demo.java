@@ -1,9 +1,18 @@
 package com.brandongogetap.autojackson.demo;
 
+import com.brandongogetap.autojackson.AutoJackson;
+import com.brandongogetap.autojackson.Intern;
+import com.brandongogetap.autojackson.LazyProperty;
+import com.brandongogetap.autojackson.UnknownEnumValue;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.google.auto.value.AutoValue;
 
+import javax.annotation.Nullable;
+import java.util.List;
+import java.util.Map;
+
 public class Demo {
 
     public static void main(String[] args) {
@@ -12,6 +21,7 @@ public class Demo {
 
     @AutoValue
     @JsonDeserialize(builder = AutoValue_Demo_Response.Builder.class)
+    @JsonSerialize(using = AutoValue_Demo_Response.Serializer.class)
     static abstract class Response {
 
         @JsonProperty("id")
@@ -20,10 +30,248 @@ public class Demo {
         public abstract String name();
     }
 
-//    @AutoValue
-//    @JsonDeserialize(using = StreamingResponseDeserializer.class)
-//    static abstract class StreamingResponse {
-//
-//        public abstract Long id();
-//    }
+    @AutoValue
+    @JsonDeserialize(using = StreamingResponseDeserializer.class)
+    @JsonSerialize(using = AutoValue_Demo_StreamingResponse.Serializer.class)
+    static abstract class StreamingResponse {
+
+        public abstract Long id();
+
+        @JsonProperty("name")
+        public abstract String name();
+
+        public abstract int count();
+
+        public abstract boolean active();
+
+        public abstract float ratio();
+
+        public abstract Status status();
+
+        public abstract List<String> tags();
+
+        public abstract Map<String, Long> counters();
+
+        public abstract Response owner();
+    }
+
+    @AutoValue
+    @JsonDeserialize(using = MeasurementDeserializer.class)
+    @JsonSerialize(using = AutoValue_Demo_Measurement.Serializer.class)
+    static abstract class Measurement {
+
+        public abstract int intValue();
+
+        public abstract long longValue();
+
+        public abstract double doubleValue();
+
+        public abstract float floatValue();
+
+        public abstract boolean booleanValue();
+
+        public abstract short shortValue();
+
+        public abstract byte byteValue();
+
+        public abstract char charValue();
+
+        @Nullable
+        public abstract Integer boxedInt();
+
+        @Nullable
+        public abstract Double boxedDouble();
+
+        @Nullable
+        public abstract Boolean boxedBoolean();
+
+        @Nullable
+        public abstract Character boxedChar();
+    }
+
+    @AutoValue
+    @AutoJackson(pooledBuilder = true)
+    @JsonDeserialize(builder = AutoValue_Demo_PooledNode.Builder.class)
+    static abstract class PooledNode {
+
+        @JsonProperty("id")
+        public abstract long id();
+
+        @Nullable
+        @JsonProperty("name")
+        public abstract String name();
+
+        @Nullable
+        @JsonProperty("child")
+        public abstract PooledNode child();
+    }
+
+    @AutoValue
+    @JsonDeserialize(using = CatalogDeserializer.class)
+    @JsonSerialize(using = AutoValue_Demo_Catalog.Serializer.class)
+    static abstract class Catalog {
+
+        public abstract StreamingResponse featured();
+
+        public abstract List<StreamingResponse> items();
+
+        public abstract Map<String, Measurement> measurements();
+
+        @Nullable
+        public abstract Catalog parent();
+    }
+
+    @AutoValue
+    @AutoJackson(projection = true)
+    @JsonDeserialize(using = ProjectionDeserializer.class)
+    static abstract class Projection {
+
+        public abstract long id();
+
+        public abstract String name();
+    }
+
+    @AutoValue
+    @JsonDeserialize(using = DocumentDeserializer.class)
+    @JsonSerialize(using = AutoValue_Demo_Document.Serializer.class)
+    static abstract class Document {
+
+        public abstract long id();
+
+        @Nullable
+        @LazyProperty
+        public abstract Catalog body();
+
+        @Nullable
+        @LazyProperty
+        public abstract List<Measurement> history();
+    }
+
+    @AutoValue
+    @JsonDeserialize(using = PageDeserializer.class)
+    static abstract class Page<T> {
+
+        public abstract int total();
+
+        public abstract List<T> items();
+
+        @Nullable
+        public abstract Map<String, T> byId();
+    }
+
+    @AutoValue
+    @JsonDeserialize(using = SearchResultDeserializer.class)
+    static abstract class SearchResult {
+
+        public abstract String query();
+
+        public abstract Page<Measurement> measurements();
+
+        public abstract Page<String> suggestions();
+    }
+
+    @AutoValue
+    @JsonDeserialize(using = TelemetryDeserializer.class)
+    @JsonSerialize(using = AutoValue_Demo_Telemetry.Serializer.class)
+    static abstract class Telemetry {
+
+        @SuppressWarnings("mutable")
+        public abstract int[] counts();
+
+        @SuppressWarnings("mutable")
+        public abstract long[] timestamps();
+
+        @SuppressWarnings("mutable")
+        public abstract double[] readings();
+
+        @Nullable
+        @SuppressWarnings("mutable")
+        public abstract float[] weights();
+    }
+
+    @AutoValue
+    @JsonDeserialize(using = EventDeserializer.class)
+    static abstract class Event {
+
+        public abstract long id();
+
+        @Intern
+        public abstract String status();
+
+        @Nullable
+        @Intern(capacity = 64)
+        public abstract String region();
+
+        @Nullable
+        public abstract String message();
+
+        @Nullable
+        public abstract Priority priority();
+    }
+
+    @AutoValue
+    @AutoJackson(pooledBuilder = true)
+    @JsonDeserialize(builder = AutoValue_Demo_Order.Builder.class)
+    static abstract class Order {
+
+        @JsonProperty(value = "order_id", required = true)
+        public abstract long orderId();
+
+        public abstract String customer();
+
+        public abstract int quantity();
+
+        @Nullable
+        public abstract String note();
+    }
+
+    @AutoValue
+    @JsonDeserialize(using = ShipmentDeserializer.class)
+    static abstract class Shipment {
+
+        @JsonProperty(required = true)
+        public abstract int quantity();
+
+        public abstract String sku();
+
+        public abstract List<String> parcels();
+
+        @Nullable
+        public abstract String carrier();
+    }
+
+    @AutoValue
+    @Intern(capacity = 64)
+    @JsonDeserialize(using = CurrencyDeserializer.class)
+    @JsonSerialize(using = AutoValue_Demo_Currency.Serializer.class)
+    static abstract class Currency {
+
+        public abstract String code();
+
+        public abstract int digits();
+    }
+
+    @AutoValue
+    @JsonDeserialize(using = PriceDeserializer.class)
+    static abstract class Price {
+
+        public abstract long amount();
+
+        public abstract Currency currency();
+
+        @Nullable
+        public abstract List<Currency> accepted();
+    }
+
+    enum Status {
+        @JsonProperty("enabled") ENABLED,
+        DISABLED
+    }
+
+    enum Priority {
+        LOW,
+        @JsonProperty("normal") NORMAL,
+        HIGH,
+        @UnknownEnumValue UNKNOWN
+    }
 }
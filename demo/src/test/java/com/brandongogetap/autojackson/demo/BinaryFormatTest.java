@@ -0,0 +1,99 @@
+package com.brandongogetap.autojackson.demo;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertSame;
+import static junit.framework.Assert.assertTrue;
+
+/**
+ * Reads and writes the same models through JSON, Smile (with and without shared string values) and CBOR. Each
+ * document is converted from its JSON form, so the binary formats are read from what their own generators produce.
+ */
+@RunWith(Parameterized.class)
+public final class BinaryFormatTest {
+
+    @Parameterized.Parameters(name = "{0}")
+    public static Collection<Object[]> formats() {
+        return Arrays.asList(new Object[][]{
+                {"json", new JsonFactory()},
+                {"smile", new SmileFactory()},
+                {"smile-shared-strings", new SmileFactory().enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)},
+                {"cbor", new CBORFactory()},
+        });
+    }
+
+    String item = "{\"id\":2,\"name\":\"brandon\",\"count\":7,\"active\":true,\"ratio\":0.5,\"status\":\"enabled\","
+            + "\"tags\":[\"a\",\"b\"],\"counters\":{\"hits\":3},\"unknown\":{\"nested\":[1,2.5,\"x\"]},"
+            + "\"owner\":{\"id\":1,\"name\":\"owner\"}}";
+    String measurement = "{\"intValue\":-1,\"longValue\":9007199254740993,\"doubleValue\":3.5,\"floatValue\":4.5,"
+            + "\"booleanValue\":true,\"shortValue\":5,\"byteValue\":6,\"charValue\":\"c\",\"boxedInt\":7,"
+            + "\"boxedDouble\":null,\"boxedChar\":\"d\"}";
+    String catalog = "{\"featured\":" + item + ",\"items\":[" + item + ",null," + item + "],"
+            + "\"measurements\":{\"first\":" + measurement + "}}";
+    String telemetry = "{\"counts\":[1,2,3],\"timestamps\":[1500000000000,-1],\"readings\":[1.5,-2.25],"
+            + "\"weights\":[0.5]}";
+    String document = "{\"id\":9,\"body\":" + catalog + ",\"history\":[" + measurement + "]}";
+    String events = "[{\"id\":1,\"status\":\"ACTIVE\",\"region\":\"eu-west\",\"priority\":\"normal\"},"
+            + "{\"id\":2,\"status\":\"ACTIVE\",\"region\":\"eu-west\",\"priority\":\"urgent\"},"
+            + "{\"id\":3,\"status\":\"ACTIVE\",\"priority\":\"normal\"}]";
+
+    private final ObjectMapper json = new ObjectMapper();
+    private final ObjectMapper format;
+
+    public BinaryFormatTest(String name, JsonFactory factory) {
+        this.format = new ObjectMapper(factory);
+    }
+
+    @Test
+    public void testModelsReadTheSameInEveryFormat() throws IOException {
+        assertReadsTheSame(measurement, Demo.Measurement.class);
+        assertReadsTheSame(item, Demo.StreamingResponse.class);
+        assertReadsTheSame(catalog, Demo.Catalog.class);
+        assertReadsTheSame(telemetry, Demo.Telemetry.class);
+        assertReadsTheSame(document, Demo.Document.class);
+    }
+
+    @Test
+    public void testModelsRoundTripInEveryFormat() throws IOException {
+        assertRoundTrips(json.readValue(measurement, Demo.Measurement.class), Demo.Measurement.class);
+        assertRoundTrips(json.readValue(item, Demo.StreamingResponse.class), Demo.StreamingResponse.class);
+        assertRoundTrips(json.readValue(catalog, Demo.Catalog.class), Demo.Catalog.class);
+        assertRoundTrips(json.readValue(telemetry, Demo.Telemetry.class), Demo.Telemetry.class);
+        assertRoundTrips(json.readValue(document, Demo.Document.class), Demo.Document.class);
+    }
+
+    @Test
+    public void testInternedAndEnumPropertiesReadFromBinaryText() throws IOException {
+        Demo.Event[] read = format.readValue(format.writeValueAsBytes(json.readTree(events)), Demo.Event[].class);
+        assertSame(read[0].status(), read[1].status());
+        assertSame(read[0].region(), read[1].region());
+        assertEquals(read[0].priority(), Demo.Priority.NORMAL);
+        assertEquals(read[1].priority(), Demo.Priority.UNKNOWN);
+        assertSame(read[0].status(), read[2].status());
+        assertEquals(read[2].priority(), Demo.Priority.NORMAL);
+    }
+
+    private <T> void assertReadsTheSame(String document, Class<T> type) throws IOException {
+        byte[] encoded = format.writeValueAsBytes(json.readTree(document));
+        assertEquals(format.readValue(encoded, type), json.readValue(document, type));
+    }
+
+    private <T> void assertRoundTrips(T value, Class<T> type) throws IOException {
+        byte[] encoded = format.writeValueAsBytes(value);
+        T read = format.readValue(encoded, type);
+        assertEquals(read, value);
+        assertTrue(Arrays.equals(format.writeValueAsBytes(read), encoded));
+    }
+}
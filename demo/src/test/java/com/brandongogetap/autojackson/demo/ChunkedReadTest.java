@@ -0,0 +1,75 @@
+package com.brandongogetap.autojackson.demo;
+
+import com.brandongogetap.autojackson.runtime.ChunkedJsonReader;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertTrue;
+
+public final class ChunkedReadTest {
+
+    String first = "{\"intValue\":-1,\"longValue\":9007199254740993,\"doubleValue\":3.5,\"floatValue\":4.5,"
+            + "\"booleanValue\":true,\"shortValue\":5,\"byteValue\":6,\"charValue\":\"}\",\"boxedInt\":7}";
+    String second = "{\"intValue\":2,\"longValue\":3,\"doubleValue\":0.25,\"floatValue\":1,\"booleanValue\":false,"
+            + "\"shortValue\":1,\"byteValue\":2,\"charValue\":\"\\\"\",\"boxedChar\":\"d\"}";
+
+    @Test
+    public void testRandomlyChunkedInputReadsLikeTheWholeDocument() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        List<Demo.Measurement> expected = Arrays.asList(objectMapper.readValue(first, Demo.Measurement.class),
+                objectMapper.readValue(second, Demo.Measurement.class));
+        byte[] ndjson = (first + "\n" + second + "\n").getBytes(StandardCharsets.UTF_8);
+        byte[] array = ("[" + first + "," + second + "]").getBytes(StandardCharsets.UTF_8);
+        Random random = new Random(42);
+        for (int run = 0; run < 50; run++) {
+            for (byte[] input : new byte[][]{ndjson, array}) {
+                Recorder recorder = new Recorder();
+                ChunkedJsonReader<Demo.Measurement> reader = MeasurementCodec.chunkedReader(recorder);
+                ByteBuffer chunk = ByteBuffer.allocateDirect(16);
+                for (int i = 0; i < input.length; ) {
+                    int size = Math.min(1 + random.nextInt(16), input.length - i);
+                    chunk.clear();
+                    chunk.put(input, i, size).flip();
+                    reader.onNext(chunk);
+                    i += size;
+                }
+                reader.onComplete();
+                assertNull(recorder.error);
+                assertTrue(recorder.completed);
+                assertEquals(expected, recorder.values);
+            }
+        }
+    }
+
+    private static final class Recorder implements ChunkedJsonReader.Listener<Demo.Measurement> {
+
+        final List<Demo.Measurement> values = new ArrayList<>();
+        Throwable error;
+        boolean completed;
+
+        @Override
+        public void onValue(Demo.Measurement value) {
+            values.add(value);
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            this.error = error;
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+    }
+}
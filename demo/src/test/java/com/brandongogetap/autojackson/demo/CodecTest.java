@@ -0,0 +1,82 @@
+package com.brandongogetap.autojackson.demo;
+
+import com.brandongogetap.autojackson.runtime.ByteBufferOverflowException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertTrue;
+import static junit.framework.TestCase.fail;
+
+public final class CodecTest {
+
+    String measurement = "{\"intValue\":-1,\"longValue\":9007199254740993,\"doubleValue\":3.5,\"floatValue\":4.5,"
+            + "\"booleanValue\":true,\"shortValue\":5,\"byteValue\":6,\"charValue\":\"c\",\"boxedInt\":7,"
+            + "\"boxedDouble\":null,\"boxedChar\":\"d\"}";
+
+    @Test
+    public void testReadsFromHeapAndDirectBuffers() throws IOException {
+        byte[] bytes = measurement.getBytes(StandardCharsets.UTF_8);
+        Demo.Measurement expected = new ObjectMapper().readValue(bytes, Demo.Measurement.class);
+
+        ByteBuffer heap = ByteBuffer.allocate(bytes.length + 8);
+        heap.position(4);
+        heap.put(bytes).flip().position(4);
+        assertEquals(expected, MeasurementCodec.read(heap.slice()));
+        assertEquals(expected, MeasurementCodec.read(heap));
+        assertEquals(heap.limit(), heap.position());
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+        direct.put(bytes).flip();
+        assertEquals(expected, MeasurementCodec.read(direct));
+        assertEquals(direct.limit(), direct.position());
+
+        ByteBuffer readOnly = ByteBuffer.wrap(bytes).asReadOnlyBuffer();
+        assertEquals(expected, MeasurementCodec.read(readOnly));
+    }
+
+    @Test
+    public void testWritesAfterThePositionAndRoundTrips() throws IOException {
+        Demo.Measurement value = new ObjectMapper().readValue(measurement, Demo.Measurement.class);
+        for (ByteBuffer buffer : new ByteBuffer[]{ByteBuffer.allocate(512), ByteBuffer.allocateDirect(512)}) {
+            buffer.put((byte) 1);
+            MeasurementCodec.write(value, buffer);
+            int end = buffer.position();
+            buffer.flip().position(1);
+            assertEquals(value, MeasurementCodec.read(buffer));
+            assertEquals(end, buffer.position());
+        }
+    }
+
+    @Test
+    public void testOverflowIsReportedAndLeavesThePositionAlone() throws IOException {
+        Demo.Measurement value = new ObjectMapper().readValue(measurement, Demo.Measurement.class);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(64);
+        buffer.position(10);
+        try {
+            MeasurementCodec.write(value, buffer);
+            fail();
+        } catch (ByteBufferOverflowException e) {
+            assertEquals(54, e.getAvailable());
+            assertTrue(e.getRequired() > 54);
+        }
+        assertEquals(10, buffer.position());
+        assertEquals(64, buffer.limit());
+    }
+
+    @Test
+    public void testMapperOverloadsUseItsFormat() throws IOException {
+        ObjectMapper smile = new ObjectMapper(new SmileFactory());
+        Demo.Measurement value = new ObjectMapper().readValue(measurement, Demo.Measurement.class);
+        ByteBuffer buffer = ByteBuffer.allocate(512);
+        MeasurementCodec.write(smile, value, buffer);
+        buffer.flip();
+        assertEquals(':', buffer.get(0));
+        assertEquals(value, MeasurementCodec.read(smile, buffer));
+    }
+}
@@ -0,0 +1,83 @@
+package com.brandongogetap.autojackson.demo;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertNull;
+import static junit.framework.TestCase.fail;
+
+public final class EnumTest {
+
+    String streamingResponse = "{\"id\":2,\"name\":\"brandon\",\"status\":%s,\"tags\":[],\"counters\":{},"
+            + "\"owner\":{\"id\":1,\"name\":\"owner\"}}";
+
+    @Test
+    public void testConstantsAreMatchedByJsonName() {
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        try {
+            assertEquals(read(objectMapper, "{\"id\":1,\"status\":\"x\",\"priority\":\"LOW\"}").priority(),
+                    Demo.Priority.LOW);
+            assertEquals(read(objectMapper, "{\"id\":1,\"status\":\"x\",\"priority\":\"normal\"}").priority(),
+                    Demo.Priority.NORMAL);
+            assertEquals(read(objectMapper, "{\"id\":1,\"status\":\"x\",\"priority\":\"HIGH\"}".getBytes("UTF-8"))
+                    .priority(), Demo.Priority.HIGH);
+            assertNull(read(objectMapper, "{\"id\":1,\"status\":\"x\",\"priority\":null}").priority());
+        } catch (IOException e) {
+            e.printStackTrace();
+            fail();
+        }
+    }
+
+    @Test
+    public void testUnknownValuesUseTheMarkedConstant() {
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        try {
+            assertEquals(read(objectMapper, "{\"id\":1,\"status\":\"x\",\"priority\":\"NORMAL\"}").priority(),
+                    Demo.Priority.UNKNOWN);
+            assertEquals(read(objectMapper, "{\"id\":1,\"status\":\"x\",\"priority\":\"urgent\"}").priority(),
+                    Demo.Priority.UNKNOWN);
+        } catch (IOException e) {
+            e.printStackTrace();
+            fail();
+        }
+    }
+
+    @Test
+    public void testUnknownValuesWithoutAMarkedConstantAreLeftToJackson() throws IOException {
+        try {
+            new ObjectMapper().readValue(String.format(streamingResponse, "\"ENABLED\""), Demo.StreamingResponse.class);
+            fail();
+        } catch (JsonMappingException expected) {
+        }
+        assertEquals(new ObjectMapper().readValue(String.format(streamingResponse, "\"enabled\""),
+                Demo.StreamingResponse.class).status(), Demo.Status.ENABLED);
+    }
+
+    @Test
+    public void testEnumsReadUsingToStringAreLeftToJackson() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper().enable(DeserializationFeature.READ_ENUMS_USING_TO_STRING);
+        assertEquals(objectMapper.readValue(String.format(streamingResponse, "\"ENABLED\""),
+                Demo.StreamingResponse.class).status(), Demo.Status.ENABLED);
+    }
+
+    @Test
+    public void testIndexesAreLeftToJackson() throws IOException {
+        assertEquals(new ObjectMapper().readValue(String.format(streamingResponse, "1"), Demo.StreamingResponse.class)
+                .status(), Demo.Status.DISABLED);
+    }
+
+    private Demo.Event read(ObjectMapper objectMapper, String json) throws IOException {
+        return objectMapper.readValue(json, Demo.Event.class);
+    }
+
+    private Demo.Event read(ObjectMapper objectMapper, byte[] json) throws IOException {
+        return objectMapper.readValue(json, Demo.Event.class);
+    }
+}
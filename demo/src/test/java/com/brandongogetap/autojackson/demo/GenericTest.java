@@ -0,0 +1,89 @@
+package com.brandongogetap.autojackson.demo;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertTrue;
+import static junit.framework.TestCase.fail;
+
+public final class GenericTest {
+
+    String measurement = "{\"intValue\":1,\"longValue\":2,\"doubleValue\":3.5,\"floatValue\":4.5,\"booleanValue\":true,"
+            + "\"shortValue\":5,\"byteValue\":6,\"charValue\":\"c\"}";
+    String measurements = "{\"total\":2,\"items\":[" + measurement + "," + measurement + "],"
+            + "\"byId\":{\"first\":" + measurement + "}}";
+    String suggestions = "{\"total\":1,\"items\":[\"brandon\"]}";
+
+    @Test
+    public void testTypeArgumentsAreResolvedForRootValues() {
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        try {
+            Demo.Measurement expected = objectMapper.readValue(measurement, Demo.Measurement.class);
+            Demo.Page<Demo.Measurement> page = objectMapper.readValue(measurements,
+                    new TypeReference<Demo.Page<Demo.Measurement>>() {});
+            assertEquals(page.total(), 2);
+            assertEquals(page.items(), Arrays.asList(expected, expected));
+            assertEquals(page.byId(), Collections.singletonMap("first", expected));
+
+            Demo.Page<String> strings = objectMapper.readValue(suggestions, new TypeReference<Demo.Page<String>>() {});
+            assertEquals(strings.items(), Collections.singletonList("brandon"));
+            assertNull(strings.byId());
+        } catch (IOException e) {
+            e.printStackTrace();
+            fail();
+        }
+    }
+
+    @Test
+    public void testTypeArgumentsAreResolvedForProperties() {
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        try {
+            Demo.SearchResult result = objectMapper.readValue("{\"query\":\"q\",\"measurements\":" + measurements
+                    + ",\"suggestions\":" + suggestions + "}", Demo.SearchResult.class);
+            assertEquals(result.measurements().items().get(0),
+                    objectMapper.readValue(measurement, Demo.Measurement.class));
+            assertEquals(result.suggestions().items(), Collections.singletonList("brandon"));
+        } catch (IOException e) {
+            e.printStackTrace();
+            fail();
+        }
+    }
+
+    @Test
+    public void testRawTypeReadsUnknownTypeArguments() {
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        try {
+            Demo.Page<?> page = objectMapper.readValue(measurements, Demo.Page.class);
+            assertEquals(page.items().size(), 2);
+            assertTrue(page.items().get(0) instanceof Map);
+        } catch (IOException e) {
+            e.printStackTrace();
+            fail();
+        }
+    }
+
+    @Test
+    public void testRegisteredModuleSpecializesGenericTypes() {
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new AutoJacksonModule());
+
+        try {
+            Demo.Page<Demo.Measurement> page = objectMapper.readValue(measurements,
+                    new TypeReference<Demo.Page<Demo.Measurement>>() {});
+            assertEquals(page.items().get(1), objectMapper.readValue(measurement, Demo.Measurement.class));
+        } catch (IOException e) {
+            e.printStackTrace();
+            fail();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.brandongogetap.autojackson.demo;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertNotSame;
+import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertSame;
+import static junit.framework.TestCase.fail;
+
+public final class InternTest {
+
+    @Test
+    public void testInternedPropertiesShareInstancesAcrossValues() {
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        try {
+            Demo.Event first = objectMapper.readValue(
+                    "{\"id\":1,\"status\":\"ACTIVE\",\"region\":\"eu-west\",\"message\":\"hello\"}", Demo.Event.class);
+            Demo.Event second = objectMapper.readValue(
+                    "{\"message\":\"hello\",\"region\":\"eu-west\",\"status\":\"ACTIVE\",\"id\":2}",
+                    Demo.Event.class);
+            assertEquals(first.status(), "ACTIVE");
+            assertSame(first.status(), second.status());
+            assertSame(first.region(), second.region());
+            assertEquals(first.message(), second.message());
+            assertNotSame(first.message(), second.message());
+        } catch (IOException e) {
+            e.printStackTrace();
+            fail();
+        }
+    }
+
+    @Test
+    public void testInternedPropertiesFromBytes() {
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        try {
+            Demo.Event first = objectMapper.readValue("{\"id\":1,\"status\":\"d\\u00e9j\\u00e0 vu\"}".getBytes("UTF-8"),
+                    Demo.Event.class);
+            Demo.Event second = objectMapper.readValue("{\"id\":2,\"status\":\"déjà vu\"}".getBytes("UTF-8"),
+                    Demo.Event.class);
+            assertEquals(second.status(), "déjà vu");
+            assertSame(first.status(), second.status());
+            assertNull(second.region());
+        } catch (IOException e) {
+            e.printStackTrace();
+            fail();
+        }
+    }
+
+    @Test
+    public void testNonStringTokensAreCoercedByJackson() {
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        try {
+            Demo.Event event = objectMapper.readValue("{\"id\":1,\"status\":404}", Demo.Event.class);
+            assertEquals(event.status(), "404");
+        } catch (IOException e) {
+            e.printStackTrace();
+            fail();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.brandongogetap.autojackson.demo;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertNotSame;
+import static junit.framework.Assert.assertSame;
+
+public final class InternedInstancesTest {
+
+    String prices = "[{\"amount\":100,\"currency\":{\"code\":\"EUR\",\"digits\":2}},"
+            + "{\"amount\":250,\"currency\":{\"code\":\"EUR\",\"digits\":2},"
+            + "\"accepted\":[{\"code\":\"USD\",\"digits\":2},{\"code\":\"EUR\",\"digits\":2}]},"
+            + "{\"amount\":5,\"currency\":{\"digits\":0,\"code\":\"JPY\"}}]";
+
+    @Test
+    public void testRepeatedNestedValuesShareOneInstance() throws IOException {
+        Demo.Price[] read = new ObjectMapper().readValue(prices, Demo.Price[].class);
+        Demo.Currency euro = read[0].currency();
+        assertEquals("EUR", euro.code());
+        assertSame(euro, read[1].currency());
+        assertSame(euro, read[1].accepted().get(1));
+        assertEquals("USD", read[1].accepted().get(0).code());
+        assertEquals(0, read[2].currency().digits());
+    }
+
+    @Test
+    public void testInstancesAreSharedAcrossDocumentsAndMappers() throws IOException {
+        Demo.Currency first = new ObjectMapper().readValue("{\"code\":\"GBP\",\"digits\":2}", Demo.Currency.class);
+        Demo.Currency second = new ObjectMapper().readValue("{\"digits\":2,\"code\":\"GBP\"}", Demo.Currency.class);
+        assertSame(first, second);
+    }
+
+    @Test
+    public void testUnequalValuesAreKeptApart() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        Demo.Currency two = objectMapper.readValue("{\"code\":\"CHF\",\"digits\":2}", Demo.Currency.class);
+        Demo.Currency four = objectMapper.readValue("{\"code\":\"CHF\",\"digits\":4}", Demo.Currency.class);
+        assertNotSame(two, four);
+        assertEquals(4, four.digits());
+        assertEquals(two, objectMapper.readValue(objectMapper.writeValueAsString(two), Demo.Currency.class));
+    }
+}
@@ -27,4 +27,17 @@ public final class JacksonTest {
             fail();
         }
     }
+
+    @Test
+    public void testGeneratedSerializerWritesResponseObject() {
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        try {
+            Demo.Response response = objectMapper.readValue(apiResponse, Demo.Response.class);
+            assertEquals(objectMapper.writeValueAsString(response), apiResponse);
+        } catch (IOException e) {
+            e.printStackTrace();
+            fail();
+        }
+    }
 }
@@ -0,0 +1,123 @@
+package com.brandongogetap.autojackson.demo;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertSame;
+import static junit.framework.TestCase.fail;
+
+public final class LazyPropertyTest {
+
+    String item = "{\"id\":2,\"name\":\"brandon\",\"count\":7,\"active\":true,\"ratio\":0.5,\"status\":\"enabled\","
+            + "\"tags\":[\"a\"],\"counters\":{},\"owner\":{\"id\":1,\"name\":\"owner\"}}";
+    String measurement = "{\"intValue\":1,\"longValue\":2,\"doubleValue\":3.5,\"floatValue\":4.5,\"booleanValue\":true,"
+            + "\"shortValue\":5,\"byteValue\":6,\"charValue\":\"c\"}";
+    String document = "{\"id\":9,\"body\":{\"featured\":" + item + ",\"items\":[" + item + "],\"measurements\":{}},"
+            + "\"history\":[" + measurement + "," + measurement + "]}";
+
+    @Test
+    public void testLazyPropertiesDecodeOnAccess() {
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        try {
+            Demo.Document response = objectMapper.readValue(document, Demo.Document.class);
+            assertEquals(response.id(), 9L);
+            assertEquals(response.body().featured(), objectMapper.readValue(item, Demo.StreamingResponse.class));
+            assertSame(response.body(), response.body());
+            assertEquals(response.history().size(), 2);
+            assertEquals(response.history().get(1), objectMapper.readValue(measurement, Demo.Measurement.class));
+        } catch (IOException e) {
+            e.printStackTrace();
+            fail();
+        }
+    }
+
+    @Test
+    public void testMissingLazyPropertyIsNull() {
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        try {
+            Demo.Document response = objectMapper.readValue("{\"id\":1,\"body\":null}", Demo.Document.class);
+            assertNull(response.body());
+            assertNull(response.history());
+        } catch (IOException e) {
+            e.printStackTrace();
+            fail();
+        }
+    }
+
+    @Test
+    public void testDeferredAndDecodedInstancesAreEqual() {
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        try {
+            Demo.Document deferred = objectMapper.readValue(document, Demo.Document.class);
+            Demo.Document decoded = objectMapper.readValue(document, Demo.Document.class);
+            Demo.Document eager = new AutoValue_Demo_Document(decoded.id(), decoded.body(), decoded.history());
+            assertEquals(eager, deferred);
+            assertEquals(deferred, eager);
+            assertEquals(eager.hashCode(), deferred.hashCode());
+            assertEquals(eager.toString(), deferred.toString());
+            assertEquals(objectMapper.readValue(objectMapper.writeValueAsString(eager), Demo.Document.class), eager);
+        } catch (IOException e) {
+            e.printStackTrace();
+            fail();
+        }
+    }
+
+    @Test
+    public void testMalformedLazyPropertyFailsOnAccess() {
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        Demo.Document response = null;
+        try {
+            response = objectMapper.readValue("{\"id\":1,\"history\":{\"not\":\"a list\"}}", Demo.Document.class);
+        } catch (IOException e) {
+            e.printStackTrace();
+            fail();
+        }
+        try {
+            response.history();
+            fail();
+        } catch (IllegalStateException expected) {
+        }
+    }
+
+    @Test
+    public void testConcurrentFirstAccessDecodesOnce() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        final Demo.Document response = objectMapper.readValue(document, Demo.Document.class);
+        int threads = 16;
+        final CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Demo.Catalog>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(new Callable<Demo.Catalog>() {
+                    @Override
+                    public Demo.Catalog call() throws Exception {
+                        start.await();
+                        return response.body();
+                    }
+                }));
+            }
+            start.countDown();
+            for (Future<Demo.Catalog> result : results) {
+                assertSame(result.get(), response.body());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.brandongogetap.autojackson.demo;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.TestCase.fail;
+
+public final class ModuleTest {
+
+    String apiResponse = "{\"id\":2,\"name\":\"brandon\",\"count\":7,\"active\":true,\"ratio\":0.5,"
+            + "\"status\":\"enabled\",\"tags\":[\"a\"],\"counters\":{},\"owner\":{\"id\":1,\"name\":\"owner\"}}";
+
+    @Test
+    public void testRegisteredModuleReadsAndWritesGeneratedTypes() {
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new AutoJacksonModule());
+
+        try {
+            Demo.StreamingResponse response = objectMapper.readValue(apiResponse, Demo.StreamingResponse.class);
+            assertEquals(response, new ObjectMapper().readValue(apiResponse, Demo.StreamingResponse.class));
+            String json = objectMapper.writeValueAsString(response);
+            assertEquals(objectMapper.readValue(json, Demo.StreamingResponse.class), response);
+        } catch (IOException e) {
+            e.printStackTrace();
+            fail();
+        }
+    }
+}
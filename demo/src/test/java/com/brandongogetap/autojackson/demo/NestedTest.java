@@ -0,0 +1,75 @@
+package com.brandongogetap.autojackson.demo;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertNull;
+import static junit.framework.TestCase.fail;
+
+public final class NestedTest {
+
+    String item = "{\"id\":2,\"name\":\"brandon\",\"count\":7,\"active\":true,\"ratio\":0.5,\"status\":\"enabled\","
+            + "\"tags\":[\"a\"],\"counters\":{},\"owner\":{\"id\":1,\"name\":\"owner\"}}";
+    String measurement = "{\"intValue\":1,\"longValue\":2,\"doubleValue\":3.5,\"floatValue\":4.5,\"booleanValue\":true,"
+            + "\"shortValue\":5,\"byteValue\":6,\"charValue\":\"c\"}";
+    String catalog = "{\"featured\":" + item + ",\"items\":[" + item + ",null," + item + "],"
+            + "\"measurements\":{\"first\":" + measurement + ",\"missing\":null},"
+            + "\"parent\":{\"featured\":" + item + ",\"items\":[],\"measurements\":{}}}";
+
+    @Test
+    public void testNestedGeneratedDeserializersAreUsed() {
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        try {
+            Demo.Catalog response = objectMapper.readValue(catalog, Demo.Catalog.class);
+            Demo.StreamingResponse featured = objectMapper.readValue(item, Demo.StreamingResponse.class);
+            assertEquals(response.featured(), featured);
+            assertEquals(response.items().size(), 3);
+            assertEquals(response.items().get(0), featured);
+            assertNull(response.items().get(1));
+            assertEquals(response.items().get(2), featured);
+            assertEquals(response.measurements().get("first"), objectMapper.readValue(measurement, Demo.Measurement.class));
+            assertNull(response.measurements().get("missing"));
+            assertEquals(response.measurements().size(), 2);
+            assertEquals(response.parent().featured(), featured);
+            assertEquals(response.parent().items().size(), 0);
+            assertNull(response.parent().parent());
+        } catch (IOException e) {
+            e.printStackTrace();
+            fail();
+        }
+    }
+
+    @Test
+    public void testNestedResponseRoundTrips() {
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        try {
+            Demo.Catalog response = objectMapper.readValue(catalog, Demo.Catalog.class);
+            String json = objectMapper.writeValueAsString(response);
+            assertEquals(objectMapper.readValue(json, Demo.Catalog.class), response);
+        } catch (IOException e) {
+            e.printStackTrace();
+            fail();
+        }
+    }
+
+    @Test
+    public void testMismatchedNestedTokenIsRejected() {
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        try {
+            objectMapper.readValue("{\"featured\":42,\"items\":[],\"measurements\":{}}", Demo.Catalog.class);
+            fail();
+        } catch (JsonMappingException expected) {
+            // A scalar where a nested object belongs is a mismatch, not a null
+        } catch (IOException e) {
+            e.printStackTrace();
+            fail();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.brandongogetap.autojackson.demo;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertSame;
+import static junit.framework.TestCase.fail;
+
+public final class PooledBuilderTest {
+
+    @Test
+    public void testNestedValuesOfTheSameTypeDoNotShareBuilders() {
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        try {
+            Demo.PooledNode node = objectMapper.readValue(
+                    "{\"id\":1,\"name\":\"root\",\"child\":{\"id\":2,\"child\":{\"id\":3,\"name\":\"leaf\"}}}",
+                    Demo.PooledNode.class);
+            assertEquals(node.id(), 1L);
+            assertEquals(node.name(), "root");
+            assertEquals(node.child().id(), 2L);
+            assertNull(node.child().name());
+            assertEquals(node.child().child().id(), 3L);
+            assertEquals(node.child().child().name(), "leaf");
+            assertNull(node.child().child().child());
+        } catch (IOException e) {
+            e.printStackTrace();
+            fail();
+        }
+    }
+
+    @Test
+    public void testReusedBuildersAreReset() {
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        try {
+            objectMapper.readValue("{\"id\":1,\"name\":\"first\",\"child\":{\"id\":2}}", Demo.PooledNode.class);
+            Demo.PooledNode node = objectMapper.readValue("{\"id\":3}", Demo.PooledNode.class);
+            assertEquals(node.id(), 3L);
+            assertNull(node.name());
+            assertNull(node.child());
+        } catch (IOException e) {
+            e.printStackTrace();
+            fail();
+        }
+    }
+
+    @Test
+    public void testBuildersCreatedDirectlyAreNotPooled() {
+        AutoValue_Demo_PooledNode.Builder builder = new AutoValue_Demo_PooledNode.Builder().id(5L).name("manual");
+        Demo.PooledNode first = builder.build();
+        Demo.PooledNode second = builder.build();
+        assertEquals(first, second);
+        assertEquals(second.name(), "manual");
+    }
+
+    @Test
+    public void testReleasedBuildersAreHandedOutAgain() {
+        AutoValue_Demo_PooledNode.Builder first = AutoValue_Demo_PooledNode.Builder.acquire();
+        first.id(1L).build();
+        AutoValue_Demo_PooledNode.Builder second = AutoValue_Demo_PooledNode.Builder.acquire();
+        assertSame(first, second);
+        assertEquals(second.build().id(), 0L);
+    }
+}
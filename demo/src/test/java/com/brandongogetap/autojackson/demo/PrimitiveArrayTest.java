@@ -0,0 +1,137 @@
+package com.brandongogetap.autojackson.demo;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertTrue;
+import static junit.framework.TestCase.fail;
+import static org.junit.Assume.assumeTrue;
+
+public final class PrimitiveArrayTest {
+
+    String apiResponse = "{\"counts\":[1,2,3],\"timestamps\":[1500000000000,1500000000001],"
+            + "\"readings\":[1.5,2,-3.25],\"weights\":[0.5,1]}";
+
+    @Test
+    public void testPrimitiveArraysAreRead() {
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        try {
+            Demo.Telemetry telemetry = objectMapper.readValue(apiResponse, Demo.Telemetry.class);
+            assertTrue(Arrays.equals(telemetry.counts(), new int[]{1, 2, 3}));
+            assertTrue(Arrays.equals(telemetry.timestamps(), new long[]{1500000000000L, 1500000000001L}));
+            assertTrue(Arrays.equals(telemetry.readings(), new double[]{1.5, 2, -3.25}));
+            assertTrue(Arrays.equals(telemetry.weights(), new float[]{0.5f, 1f}));
+        } catch (IOException e) {
+            e.printStackTrace();
+            fail();
+        }
+    }
+
+    @Test
+    public void testArraysLongerThanTheLengthHintAreGrown() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        StringBuilder json = new StringBuilder("{\"counts\":[");
+        int[] expected = new int[1000];
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = i * 7;
+            json.append(i == 0 ? "" : ",").append(i * 7);
+        }
+        json.append("],\"timestamps\":[],\"readings\":[]}");
+
+        try {
+            Demo.Telemetry large = objectMapper.readValue(json.toString(), Demo.Telemetry.class);
+            assertTrue(Arrays.equals(large.counts(), expected));
+            assertEquals(large.timestamps().length, 0);
+            Demo.Telemetry small = objectMapper.readValue(apiResponse, Demo.Telemetry.class);
+            assertTrue(Arrays.equals(small.counts(), new int[]{1, 2, 3}));
+        } catch (IOException e) {
+            e.printStackTrace();
+            fail();
+        }
+    }
+
+    @Test
+    public void testOtherTokensAreCoercedByJackson() {
+        ObjectMapper objectMapper = new ObjectMapper()
+                .enable(DeserializationFeature.ACCEPT_SINGLE_VALUE_AS_ARRAY);
+
+        try {
+            Demo.Telemetry telemetry = objectMapper.readValue(
+                    "{\"counts\":[\"4\",null,5],\"timestamps\":7,\"readings\":[\"2.5\"],\"weights\":null}",
+                    Demo.Telemetry.class);
+            assertTrue(Arrays.equals(telemetry.counts(), new int[]{4, 0, 5}));
+            assertTrue(Arrays.equals(telemetry.timestamps(), new long[]{7}));
+            assertTrue(Arrays.equals(telemetry.readings(), new double[]{2.5}));
+            assertNull(telemetry.weights());
+        } catch (IOException e) {
+            e.printStackTrace();
+            fail();
+        }
+    }
+
+    @Test
+    public void testPrimitiveArraysRoundTrip() {
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        try {
+            Demo.Telemetry telemetry = objectMapper.readValue(apiResponse, Demo.Telemetry.class);
+            String json = objectMapper.writeValueAsString(telemetry);
+            assertEquals(json, "{\"counts\":[1,2,3],\"timestamps\":[1500000000000,1500000000001],"
+                    + "\"readings\":[1.5,2.0,-3.25],\"weights\":[0.5,1.0]}");
+            assertEquals(objectMapper.readValue(json, Demo.Telemetry.class), telemetry);
+            assertEquals(objectMapper.writeValueAsString(objectMapper.readValue(
+                    "{\"counts\":[],\"timestamps\":[],\"readings\":[]}", Demo.Telemetry.class)),
+                    "{\"counts\":[],\"timestamps\":[],\"readings\":[],\"weights\":null}");
+        } catch (IOException e) {
+            e.printStackTrace();
+            fail();
+        }
+    }
+
+    /**
+     * The read buffer starts at 16 slots and doubles, so a 131,072 element long[] fills its last buffer exactly and the
+     * buffers add up to under 16 bytes per element. Boxing would allocate at least 16 more per element, so staying
+     * under 24 shows none of them are boxed. A small array read afterwards must not be sized by the large one.
+     */
+    @Test
+    public void testElementsAreNotBoxed() throws IOException {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+        int count = 16 << 13;
+        StringBuilder json = new StringBuilder("{\"counts\":[],\"timestamps\":[");
+        for (int i = 0; i < count; i++) {
+            json.append(i == 0 ? "" : ",").append(1500000000000L + i);
+        }
+        byte[] large = json.append("],\"readings\":[]}").toString().getBytes(Charset.forName("UTF-8"));
+        byte[] small = apiResponse.getBytes(Charset.forName("UTF-8"));
+        ObjectReader reader = new ObjectMapper().readerFor(Demo.Telemetry.class);
+        for (int i = 0; i < 5; i++) {
+            reader.readValue(large);
+            reader.readValue(small);
+        }
+
+        long id = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(id);
+        Demo.Telemetry telemetry = reader.readValue(large);
+        long allocated = threads.getThreadAllocatedBytes(id) - before;
+        assertEquals(telemetry.timestamps().length, count);
+        assertTrue("Allocated " + allocated + " bytes", allocated < count * 24L);
+
+        before = threads.getThreadAllocatedBytes(id);
+        telemetry = reader.readValue(small);
+        allocated = threads.getThreadAllocatedBytes(id) - before;
+        assertEquals(telemetry.timestamps().length, 2);
+        assertTrue("Allocated " + allocated + " bytes after a large read", allocated < 16 * 1024);
+    }
+}
@@ -0,0 +1,93 @@
+package com.brandongogetap.autojackson.demo;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertTrue;
+import static junit.framework.TestCase.fail;
+
+public final class PrimitivesTest {
+
+    String apiResponse = "{\"intValue\":1,\"longValue\":2,\"doubleValue\":3.5,\"floatValue\":4,\"booleanValue\":true,"
+            + "\"shortValue\":5,\"byteValue\":6,\"charValue\":\"c\",\"boxedInt\":7,\"boxedDouble\":8.5,"
+            + "\"boxedBoolean\":false,\"boxedChar\":\"d\"}";
+
+    @Test
+    public void testPrimitivesAreReadFromMatchingTokens() {
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        try {
+            Demo.Measurement measurement = objectMapper.readValue(apiResponse, Demo.Measurement.class);
+            assertEquals(measurement.intValue(), 1);
+            assertEquals(measurement.longValue(), 2L);
+            assertEquals(measurement.doubleValue(), 3.5);
+            assertEquals(measurement.floatValue(), 4f);
+            assertTrue(measurement.booleanValue());
+            assertEquals(measurement.shortValue(), (short) 5);
+            assertEquals(measurement.byteValue(), (byte) 6);
+            assertEquals(measurement.charValue(), 'c');
+            assertEquals(measurement.boxedInt(), Integer.valueOf(7));
+            assertEquals(measurement.boxedDouble(), 8.5);
+            assertFalse(measurement.boxedBoolean());
+            assertEquals(measurement.boxedChar(), Character.valueOf('d'));
+        } catch (IOException e) {
+            e.printStackTrace();
+            fail();
+        }
+    }
+
+    @Test
+    public void testOtherTokensAreCoercedByJackson() {
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        try {
+            Demo.Measurement measurement = objectMapper.readValue(
+                    "{\"intValue\":\"11\",\"longValue\":\"12\",\"booleanValue\":\"true\",\"boxedInt\":\"13\"}",
+                    Demo.Measurement.class);
+            assertEquals(measurement.intValue(), 11);
+            assertEquals(measurement.longValue(), 12L);
+            assertTrue(measurement.booleanValue());
+            assertEquals(measurement.boxedInt(), Integer.valueOf(13));
+        } catch (IOException e) {
+            e.printStackTrace();
+            fail();
+        }
+    }
+
+    @Test
+    public void testNullsLeaveDefaults() {
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        try {
+            Demo.Measurement measurement = objectMapper.readValue(
+                    "{\"intValue\":null,\"boxedInt\":null,\"boxedDouble\":null}", Demo.Measurement.class);
+            assertEquals(measurement.intValue(), 0);
+            assertNull(measurement.boxedInt());
+            assertNull(measurement.boxedDouble());
+            assertNull(measurement.boxedBoolean());
+            assertNull(measurement.boxedChar());
+        } catch (IOException e) {
+            e.printStackTrace();
+            fail();
+        }
+    }
+
+    @Test
+    public void testPrimitivesRoundTrip() {
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        try {
+            Demo.Measurement measurement = objectMapper.readValue(apiResponse, Demo.Measurement.class);
+            String json = objectMapper.writeValueAsString(measurement);
+            assertEquals(objectMapper.readValue(json, Demo.Measurement.class), measurement);
+        } catch (IOException e) {
+            e.printStackTrace();
+            fail();
+        }
+    }
+}
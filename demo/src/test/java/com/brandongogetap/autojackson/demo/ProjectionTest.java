@@ -0,0 +1,55 @@
+package com.brandongogetap.autojackson.demo;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.TestCase.fail;
+
+public final class ProjectionTest {
+
+    String wide = "{\"id\":2,\"name\":\"brandon\",\"tags\":[\"a\",{\"name\":\"nested\"}],"
+            + "\"owner\":{\"id\":1,\"name\":\"owner\",\"children\":[[1],[2]]},\"name\":\"ignored\",\"count\":3}";
+    String shuffled = "{\"extra\":{\"name\":\"nested\"},\"name\":\"brandon\",\"more\":[1,2],\"id\":2,\"last\":true}";
+
+    @Test
+    public void testPropertiesAreReadAndRestIsSkipped() {
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        try {
+            Demo.Projection projection = objectMapper.readValue(wide, Demo.Projection.class);
+            assertEquals(projection.id(), 2L);
+            assertEquals(projection.name(), "brandon");
+            assertEquals(objectMapper.readValue(shuffled, Demo.Projection.class), projection);
+        } catch (IOException e) {
+            e.printStackTrace();
+            fail();
+        }
+    }
+
+    @Test
+    public void testSkippedFieldsLeaveParserAtEndOfEachObject() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        byte[] json = ("[" + wide + "," + shuffled + "," + wide + "]").getBytes(Charset.forName("UTF-8"));
+
+        try {
+            MappingIterator<Demo.Projection> iterator = ProjectionDeserializer.iterate(objectMapper,
+                    new ByteArrayInputStream(json));
+            for (int i = 0; i < 3; i++) {
+                Demo.Projection projection = iterator.next();
+                assertEquals(projection.id(), 2L);
+                assertEquals(projection.name(), "brandon");
+            }
+            assertFalse(iterator.hasNext());
+        } catch (IOException e) {
+            e.printStackTrace();
+            fail();
+        }
+    }
+}
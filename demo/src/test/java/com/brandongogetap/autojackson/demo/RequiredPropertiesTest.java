@@ -0,0 +1,68 @@
+package com.brandongogetap.autojackson.demo;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertTrue;
+import static junit.framework.TestCase.fail;
+
+public final class RequiredPropertiesTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void testBuilderReadsCompleteObjects() throws IOException {
+        Demo.Order order = objectMapper.readValue("{\"order_id\":0,\"customer\":\"brandon\"}", Demo.Order.class);
+        assertEquals(0L, order.orderId());
+        assertEquals("brandon", order.customer());
+        assertEquals(0, order.quantity());
+        assertNull(order.note());
+    }
+
+    @Test
+    public void testBuilderNamesEveryMissingProperty() throws IOException {
+        assertMissing("{\"quantity\":2,\"note\":\"x\"}", Demo.Order.class, "Missing required properties: order_id customer");
+        assertMissing("{\"order_id\":1,\"customer\":null}", Demo.Order.class, "Missing required properties: customer");
+    }
+
+    @Test
+    public void testPooledBuildersForgetWhatAnEarlierValueSet() throws IOException {
+        Demo.Order order = objectMapper.readValue("{\"order_id\":3,\"customer\":\"c\"}", Demo.Order.class);
+        assertEquals(3L, order.orderId());
+        assertMissing("{\"quantity\":1}", Demo.Order.class, "Missing required properties: order_id customer");
+        assertMissing("{\"order_id\":1}", Demo.Order.class, "Missing required properties: customer");
+    }
+
+    @Test
+    public void testStreamingDeserializerReadsCompleteObjectsInAnyOrder() throws IOException {
+        Demo.Shipment shipment = objectMapper.readValue(
+                "{\"parcels\":[\"p1\"],\"sku\":\"A-1\",\"extra\":true,\"quantity\":0}", Demo.Shipment.class);
+        assertEquals(0, shipment.quantity());
+        assertEquals("A-1", shipment.sku());
+        assertEquals(Arrays.asList("p1"), shipment.parcels());
+        assertNull(shipment.carrier());
+    }
+
+    @Test
+    public void testStreamingDeserializerNamesEveryMissingProperty() throws IOException {
+        assertMissing("{\"carrier\":\"ups\"}", Demo.Shipment.class,
+                "Missing required properties: quantity sku parcels");
+        assertMissing("{\"quantity\":1,\"sku\":\"A-1\",\"parcels\":null}", Demo.Shipment.class,
+                "Missing required properties: parcels");
+    }
+
+    private void assertMissing(String json, Class<?> type, String message) throws IOException {
+        try {
+            objectMapper.readValue(json, type);
+            fail();
+        } catch (JsonMappingException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains(message));
+        }
+    }
+}
@@ -1,26 +1,202 @@
 package com.brandongogetap.autojackson.demo;
 
-import org.junit.Ignore;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertTrue;
+import static junit.framework.TestCase.fail;
+
 /**
  * Created by brandongogetap on 5/5/16.
  */
-@Ignore
 public final class StreamingTest {
 
-    String apiResponse = "{\"id\":2,\"name\":\"brandon\"}";
+    String apiResponse = "{\"id\":2,\"name\":\"brandon\",\"count\":7,\"active\":true,\"ratio\":0.5,"
+            + "\"status\":\"enabled\",\"tags\":[\"a\",\"b\"],\"counters\":{\"hits\":3},"
+            + "\"unknown\":{\"nested\":[1,2,3]},\"owner\":{\"id\":1,\"name\":\"owner\"}}";
 
     @Test
     public void testStreamingDeserializationWorks() {
-//        ObjectMapper objectMapper = new ObjectMapper();
-//
-//        try {
-//            Demo.StreamingResponse response = objectMapper.readValue(apiResponse, Demo.StreamingResponse.class);
-//            assertEquals((long)response.id(), 2L);
-//        } catch (IOException e) {
-//            e.printStackTrace();
-//            fail();
-//        }
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        try {
+            Demo.StreamingResponse response = objectMapper.readValue(apiResponse, Demo.StreamingResponse.class);
+            assertEquals((long) response.id(), 2L);
+            assertEquals(response.name(), "brandon");
+            assertEquals(response.count(), 7);
+            assertTrue(response.active());
+            assertEquals(response.ratio(), 0.5f);
+            assertEquals(response.status(), Demo.Status.ENABLED);
+            assertEquals(response.tags(), Arrays.asList("a", "b"));
+            assertEquals(response.counters(), Collections.singletonMap("hits", 3L));
+            assertEquals((long) response.owner().id(), 1L);
+            assertEquals(response.owner().name(), "owner");
+        } catch (IOException e) {
+            e.printStackTrace();
+            fail();
+        }
+    }
+
+    @Test
+    public void testNullStreamingResponseIsReturnedAsNull() {
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        try {
+            assertNull(objectMapper.readValue("null", Demo.StreamingResponse.class));
+        } catch (IOException e) {
+            e.printStackTrace();
+            fail();
+        }
+    }
+
+    @Test
+    public void testStreamingResponseRoundTrips() {
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        try {
+            Demo.StreamingResponse response = objectMapper.readValue(apiResponse, Demo.StreamingResponse.class);
+            String json = objectMapper.writeValueAsString(response);
+            assertEquals(objectMapper.readValue(json, Demo.StreamingResponse.class), response);
+        } catch (IOException e) {
+            e.printStackTrace();
+            fail();
+        }
+    }
+
+    @Test
+    public void testSharedMapperDeserializesConcurrently() throws Exception {
+        final ObjectMapper objectMapper = new ObjectMapper();
+        final Demo.StreamingResponse expected = objectMapper.readValue(apiResponse, Demo.StreamingResponse.class);
+        int threads = 16;
+        final int iterations = 1000;
+        final CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(new Callable<Integer>() {
+                    @Override
+                    public Integer call() throws Exception {
+                        start.await();
+                        int matches = 0;
+                        for (int j = 0; j < iterations; j++) {
+                            String json = apiResponse.replace("\"count\":7", "\"count\":" + j);
+                            Demo.StreamingResponse response =
+                                    objectMapper.readValue(json, Demo.StreamingResponse.class);
+                            if (response.count() == j && response.tags().equals(expected.tags())
+                                    && response.owner().equals(expected.owner())) {
+                                matches++;
+                            }
+                        }
+                        return matches;
+                    }
+                }));
+            }
+            start.countDown();
+            for (Future<Integer> result : results) {
+                assertEquals((int) result.get(), iterations);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testTopLevelArrayIsReadOneElementAtATime() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        String json = "[" + apiResponse + "," + apiResponse.replace("\"id\":2", "\"id\":3") + ",{\"id\":";
+        InputStream input = new ByteArrayInputStream(json.getBytes(Charset.forName("UTF-8")));
+
+        try (MappingIterator<Demo.StreamingResponse> iterator = StreamingResponseDeserializer.iterate(objectMapper, input)) {
+            assertEquals((long) iterator.next().id(), 2L);
+            assertEquals((long) iterator.next().id(), 3L);
+            try {
+                iterator.next();
+                fail();
+            } catch (RuntimeException expected) {
+                // The truncated third element only fails once it is reached
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            fail();
+        }
+    }
+
+    @Test
+    public void testIterateFromParserStopsAtEndOfArray() {
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        try {
+            JsonParser parser = objectMapper.getFactory().createParser("{\"items\":[" + apiResponse + "," + apiResponse + "]}");
+            parser.nextToken();
+            parser.nextToken();
+            parser.nextToken();
+            MappingIterator<Demo.StreamingResponse> iterator = StreamingResponseDeserializer.iterate(objectMapper, parser);
+            int count = 0;
+            while (iterator.hasNext()) {
+                assertEquals(iterator.next().name(), "brandon");
+                count++;
+            }
+            assertEquals(count, 2);
+            assertEquals(parser.getCurrentToken(), JsonToken.END_ARRAY);
+        } catch (IOException e) {
+            e.printStackTrace();
+            fail();
+        }
+    }
+
+    @Test
+    public void testDeclarationOrderAndShuffledOrderReadTheSame() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        String ordered = "{\"id\":2,\"name\":\"brandon\",\"count\":7,\"active\":true,\"ratio\":0.5,"
+                + "\"status\":\"enabled\",\"tags\":[\"a\"],\"counters\":{\"hits\":3},\"owner\":{\"id\":1,\"name\":\"owner\"}}";
+        String shuffled = "{\"count\":7,\"id\":2,\"tags\":[\"a\"],\"name\":\"brandon\",\"active\":true,"
+                + "\"counters\":{\"hits\":3},\"owner\":{\"id\":1,\"name\":\"owner\"},\"ratio\":0.5,\"status\":\"enabled\"}";
+
+        try {
+            Charset utf8 = Charset.forName("UTF-8");
+            Demo.StreamingResponse fromBytes = objectMapper.readValue(ordered.getBytes(utf8), Demo.StreamingResponse.class);
+            assertEquals((long) fromBytes.id(), 2L);
+            assertEquals(fromBytes.counters(), Collections.singletonMap("hits", 3L));
+            assertEquals((long) fromBytes.owner().id(), 1L);
+            assertEquals(objectMapper.readValue(ordered, Demo.StreamingResponse.class), fromBytes);
+            assertEquals(objectMapper.readValue(shuffled.getBytes(utf8), Demo.StreamingResponse.class), fromBytes);
+        } catch (IOException e) {
+            e.printStackTrace();
+            fail();
+        }
+    }
+
+    @Test
+    public void testNonObjectRootValuesAreRejected() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        for (String json : Arrays.asList("42", "[]", "\"text\"")) {
+            try {
+                objectMapper.readValue(json, Demo.StreamingResponse.class);
+                fail(json);
+            } catch (JsonMappingException expected) {
+            }
+        }
+        assertNull(objectMapper.readValue("null", Demo.StreamingResponse.class));
     }
 }
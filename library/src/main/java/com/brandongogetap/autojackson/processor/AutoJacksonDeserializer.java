@@ -1,38 +1,230 @@
 package com.brandongogetap.autojackson.processor;
 
+import com.brandongogetap.autojackson.AutoJackson;
+import com.brandongogetap.autojackson.Intern;
+import com.brandongogetap.autojackson.LazyProperty;
+import com.brandongogetap.autojackson.UnknownEnumValue;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonValue;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.BeanProperty;
 import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.deser.ContextualDeserializer;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.google.auto.service.AutoService;
 import com.google.auto.value.AutoValue;
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.squareup.javapoet.*;
 
 import javax.annotation.processing.*;
 import javax.lang.model.SourceVersion;
-import javax.lang.model.element.Element;
-import javax.lang.model.element.Modifier;
-import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.*;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.TypeVariable;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.ElementFilter;
 import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
 import javax.tools.Diagnostic;
+import java.beans.Introspector;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
-import static com.squareup.javapoet.ClassName.bestGuess;
-
-//@AutoService(Processor.class)
+/**
+ * Generates a streaming {@code XDeserializer} for every AutoValue class annotated with
+ * {@code @JsonDeserialize(using = XDeserializer.class)}. Each deserializer depends only on its own class and the types
+ * that class mentions, and is written with that class as its only originating element, so the processor is declared to
+ * Gradle as isolating. Nothing is carried between rounds.
+ * <p>
+ * When the runtime library is on the processor's classpath, every non-generic class also gets an {@code XCodec} with
+ * static entry points that read from and write to {@link java.nio.ByteBuffer}s, including input that arrives in chunks.
+ */
+@AutoService(Processor.class)
 public final class AutoJacksonDeserializer extends AbstractProcessor {
 
     private static final String PARSER_VARIABLE_NAME = "parser";
+    private static final String CONTEXT_VARIABLE_NAME = "context";
+    private static final String TOKEN_VARIABLE_NAME = "token";
+    private static final String FIELD_NAME_VARIABLE_NAME = "fieldName";
+    private static final ClassName STRING_CANONICALIZER =
+            ClassName.get("com.brandongogetap.autojackson.runtime", "StringCanonicalizer");
+    private static final ClassName BYTE_BUFFER_CODEC =
+            ClassName.get("com.brandongogetap.autojackson.runtime", "ByteBufferCodec");
+    private static final ClassName INSTANCE_INTERNER =
+            ClassName.get("com.brandongogetap.autojackson.runtime", "InstanceInterner");
+    private static final String INSTANCES_FIELD_NAME = "INSTANCES";
+    private static final ClassName CHUNKED_JSON_READER =
+            ClassName.get("com.brandongogetap.autojackson.runtime", "ChunkedJsonReader");
+
+    /**
+     * How a property holding another class with a generated deserializer wraps it.
+     */
+    private enum Container {
+        NONE, LIST, MAP
+    }
+
+    private static final class Property {
+        final String methodName;
+        final String humanName;
+        final String jsonName;
+        final TypeMirror typeMirror;
+        final TypeName type;
+        final Container container;
+        /**
+         * The generated deserializer of the property's type, or of its element or value type when {@link #container}
+         * is a {@code List} or {@code Map}. Null when the property is read through databind.
+         */
+        final ClassName nestedDeserializer;
+        /**
+         * {@code @LazyProperty}: the deserializer only buffers the value's tokens.
+         */
+        final boolean lazy;
+        /**
+         * Whether the type mentions one of the class's type parameters, so it is only known once the deserializer is
+         * specialized for a concrete {@link JavaType}.
+         */
+        final boolean generic;
+        /**
+         * The element type of an {@code int[]}, {@code long[]}, {@code double[]} or {@code float[]} property, which is
+         * read into a primitive buffer instead of through databind. Null for any other type.
+         */
+        final TypeName primitiveComponent;
+        /**
+         * {@code @Intern}: the value is resolved through a {@code StringCanonicalizer} with {@link #internCapacity}
+         * slots.
+         */
+        final boolean intern;
+        final int internCapacity;
+        /**
+         * The property's enum type when its constants are decoded by a generated {@code switch}. Null for other types
+         * and for enums whose JSON form is customized beyond {@code @JsonProperty} names.
+         */
+        final TypeElement enumType;
+        /**
+         * Whether the JSON has to hold a non-null value for the property, see {@link GeneratorUtils#isRequired}.
+         */
+        final boolean required;
+
+        Property(String humanName, ExecutableElement element, Container container, ClassName nestedDeserializer,
+                boolean generic, TypeElement enumType) {
+            this.methodName = element.getSimpleName().toString();
+            this.humanName = humanName;
+            this.typeMirror = element.getReturnType();
+            this.type = TypeName.get(typeMirror);
+            this.container = container;
+            this.lazy = element.getAnnotation(LazyProperty.class) != null;
+            this.generic = generic;
+            this.nestedDeserializer = lazy || generic ? null : nestedDeserializer;
+            this.primitiveComponent = lazy ? null : getPrimitiveComponent(typeMirror);
+            Intern intern = element.getAnnotation(Intern.class);
+            this.intern = intern != null;
+            this.internCapacity = intern != null ? intern.capacity() : 0;
+            this.enumType = lazy ? null : enumType;
+            this.required = GeneratorUtils.isRequired(element);
+            JsonProperty jsonProperty = element.getAnnotation(JsonProperty.class);
+            this.jsonName = jsonProperty != null && !jsonProperty.value().isEmpty() ? jsonProperty.value() : humanName;
+        }
+
+        /**
+         * The type of the local the property is read into.
+         */
+        TypeName localType() {
+            return lazy ? ClassName.get(TokenBuffer.class) : type;
+        }
+
+        String nameConstantName() {
+            return GeneratorUtils.constantName(humanName) + "_NAME";
+        }
+
+        String typeConstantName() {
+            return GeneratorUtils.constantName(humanName) + "_TYPE";
+        }
+
+        /**
+         * Named after {@link #nestedDeserializer} rather than the property, so properties of the same type share it.
+         */
+        String deserializerConstantName() {
+            return GeneratorUtils.constantName(nestedDeserializer.simpleName());
+        }
+
+        String javaTypeFieldName() {
+            return humanName + "Type";
+        }
+
+        String deserializerFieldName() {
+            return humanName + "Deserializer";
+        }
+
+        String findDeserializerMethodName() {
+            return "find" + Character.toUpperCase(humanName.charAt(0)) + humanName.substring(1) + "Deserializer";
+        }
+
+        String canonicalizerConstantName() {
+            return GeneratorUtils.constantName(humanName) + "_STRINGS";
+        }
+
+        String decodeMethodName() {
+            StringBuilder name = new StringBuilder("decode");
+            for (String simpleName : ClassName.get(enumType).simpleNames()) {
+                name.append(simpleName);
+            }
+            return name.toString();
+        }
+
+        String readMethodName() {
+            return "read" + Character.toUpperCase(humanName.charAt(0)) + humanName.substring(1);
+        }
+    }
+
+    private static TypeName getPrimitiveComponent(TypeMirror type) {
+        if (type.getKind() != TypeKind.ARRAY) {
+            return null;
+        }
+        TypeName component = TypeName.get(((ArrayType) type).getComponentType());
+        if (component.equals(TypeName.INT) || component.equals(TypeName.LONG)
+                || component.equals(TypeName.DOUBLE) || component.equals(TypeName.FLOAT)) {
+            return component;
+        }
+        return null;
+    }
 
     private Filer filer;
     private Messager messager;
     private Elements elementUtils;
-    private ImmutableMap.Builder<String, ClassName> argMap;
-    private StringBuilder returnArgumentStringBuilder;
+    private Types typeUtils;
+    private boolean metrics;
+    private boolean codecs;
 
     @Override
     public void init(ProcessingEnvironment processingEnv) {
@@ -40,123 +232,1164 @@ public final class AutoJacksonDeserializer extends AbstractProcessor {
         filer = processingEnv.getFiler();
         messager = processingEnv.getMessager();
         elementUtils = processingEnv.getElementUtils();
+        typeUtils = processingEnv.getTypeUtils();
+        metrics = GeneratorUtils.metricsEnabled(processingEnv);
+        codecs = elementUtils.getTypeElement(BYTE_BUFFER_CODEC.toString()) != null;
     }
 
     @Override
     public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
         for (Element element : roundEnv.getElementsAnnotatedWith(JsonDeserialize.class)) {
+            if (element.getAnnotation(AutoValue.class) == null || !usesCustomDeserializer(element)) {
+                continue;
+            }
+            TypeElement typeElement = (TypeElement) element;
+            boolean generic = !typeElement.getTypeParameters().isEmpty();
+            ImmutableList<Property> properties = readProperties(typeElement);
+            if (hasDuplicateJsonNames(typeElement, properties) || hasInvalidInternProperties(typeElement, properties)
+                    || hasInvalidEnums(typeElement, properties) || hasInvalidInternedClass(typeElement, properties)) {
+                continue;
+            }
             try {
                 String classPackage = getPackageName(element);
-                ImmutableList<Element> methods = ImmutableList.copyOf(element.getEnclosedElements());
-                TypeSpec.Builder deserializerBuilder = TypeSpec.classBuilder(element.getSimpleName() + "Deserializer")
-                        .superclass(ParameterizedTypeName.get(ClassName.get(JsonDeserializer.class), ClassName.get(element.asType())))
+                ClassName deserializerName = ClassName.get(classPackage, element.getSimpleName() + "Deserializer");
+                TypeSpec.Builder deserializerBuilder = TypeSpec.classBuilder(deserializerName.simpleName())
+                        .superclass(ParameterizedTypeName.get(ClassName.get(JsonDeserializer.class), getValueType(typeElement)))
                         .addModifiers(Modifier.FINAL);
+                if (element.getModifiers().contains(Modifier.PUBLIC)) {
+                    deserializerBuilder.addModifiers(Modifier.PUBLIC);
+                }
 
-                returnArgumentStringBuilder = new StringBuilder();
-                argMap = new ImmutableMap.Builder<>();
-
-                for (Element method : methods) {
-                    String elementName = method.getSimpleName().toString();
-                    if (elementName.equals("<init>")) {
-                        continue;
+                if (metrics) {
+                    deserializerBuilder.addField(GeneratorUtils.metricsField(ClassName.get(typeElement)));
+                }
+                Intern interned = element.getAnnotation(Intern.class);
+                if (interned != null) {
+                    deserializerBuilder.addField(generateInstancesField(typeElement, interned.capacity()));
+                }
+                for (Property property : properties) {
+                    deserializerBuilder.addField(generateNameField(property));
+                }
+                Set<String> deserializerFields = new HashSet<>();
+                for (Property property : properties) {
+                    if (isParameterized(property.typeMirror) && !property.lazy && !property.generic) {
+                        deserializerBuilder.addField(generateTypeField(property));
+                    }
+                    if (property.nestedDeserializer != null
+                            && deserializerFields.add(property.deserializerConstantName())) {
+                        deserializerBuilder.addField(generateDeserializerField(property));
                     }
-                    ClassName className = ClassName.bestGuess(method.asType().toString().substring(method.asType().toString().lastIndexOf("" +
-                            ".") + 1));
-                    deserializerBuilder.addField(bestGuess(className.simpleName()), method.getSimpleName().toString());
-                    argMap.put(elementName, className);
-                    returnArgumentStringBuilder.append(elementName + ", ");
-                }
-                deserializerBuilder.addMethod(generateDeserializeMethod(element, methods))
-                        .addMethod(generateParseMethod(methods));
+                    if (property.intern) {
+                        deserializerBuilder.addField(generateCanonicalizerField(property));
+                    }
+                }
+                AutoJackson options = element.getAnnotation(AutoJackson.class);
+                boolean projection = options != null && options.projection();
+                if (generic) {
+                    addSpecialization(deserializerBuilder, deserializerName, typeElement, properties);
+                }
+                deserializerBuilder.addMethod(generateDeserializeMethod(typeElement, properties, projection));
+                boolean hasLazy = false;
+                Set<String> decodeMethods = new HashSet<>();
+                for (Property property : properties) {
+                    if (property.enumType != null && decodeMethods.add(property.decodeMethodName())) {
+                        deserializerBuilder.addMethod(generateEnumDecodeMethod(property));
+                    }
+                    if (property.nestedDeserializer != null && property.container != Container.NONE) {
+                        deserializerBuilder.addMethod(generateContainerReadMethod(property));
+                    }
+                    if (property.primitiveComponent != null) {
+                        deserializerBuilder.addMethod(generatePrimitiveArrayReadMethod(property));
+                    }
+                    hasLazy |= property.lazy;
+                }
+                if (hasLazy) {
+                    deserializerBuilder.addMethod(generateCaptureMethod());
+                }
+                if (!decodeMethods.isEmpty()) {
+                    deserializerBuilder.addMethod(generateTextEqualsMethod());
+                }
+                deserializerBuilder.addMethod(generateIsCachableMethod());
+                if (!generic) {
+                    deserializerBuilder.addMethod(generateIterateParserMethod(typeElement))
+                            .addMethod(generateIterateStreamMethod(typeElement));
+                }
+                deserializerBuilder.addOriginatingElement(typeElement);
                 JavaFile javaFile = JavaFile.builder(classPackage, deserializerBuilder.build()).build();
                 javaFile.writeTo(filer);
+                if (codecs && !generic) {
+                    JavaFile.builder(classPackage, generateCodec(typeElement)).build().writeTo(filer);
+                }
             } catch (IOException e) {
                 error(element, "Unable to create deserializer method\n\n%s", e.getMessage());
             }
         }
-        return true;
+        return false;
+    }
+
+    /**
+     * Only classes that opt out of the Builder path with {@code @JsonDeserialize(using = ...)} get a streaming
+     * deserializer generated for them.
+     */
+    private boolean usesCustomDeserializer(Element element) {
+        return GeneratorUtils.hasAnnotationMember(element, "JsonDeserialize", "using");
     }
 
     private String getPackageName(Element element) {
         return elementUtils.getPackageOf(element).getQualifiedName().toString();
     }
 
-    private MethodSpec generateDeserializeMethod(Element element, ImmutableList<Element> methods) {
-        MethodSpec.Builder builder = MethodSpec.methodBuilder("deserialize")
-                .addAnnotation(Override.class)
-                .addModifiers(Modifier.PUBLIC)
-                .addParameter(ParameterSpec.builder(JsonParser.class, PARSER_VARIABLE_NAME).build())
-                .addParameter(ParameterSpec.builder(DeserializationContext.class, "context").build())
+    private ImmutableList<Property> readProperties(TypeElement element) {
+        List<ExecutableElement> methods = ElementFilter.methodsIn(element.getEnclosedElements());
+        ImmutableList.Builder<ExecutableElement> abstractMethods = ImmutableList.builder();
+        boolean allPrefixed = true;
+        for (ExecutableElement method : methods) {
+            if (!method.getModifiers().contains(Modifier.ABSTRACT)
+                    || !method.getParameters().isEmpty()
+                    || method.getReturnType().getKind() == TypeKind.VOID) {
+                continue;
+            }
+            String name = method.getSimpleName().toString();
+            if (name.equals("toString") || name.equals("hashCode")) {
+                continue;
+            }
+            abstractMethods.add(method);
+            allPrefixed &= prefixLength(method) > 0;
+        }
+        ImmutableList.Builder<Property> values = ImmutableList.builder();
+        // Deserializer constants are named by simple name, so a second one of the same name is left to databind
+        Map<String, ClassName> deserializers = new HashMap<>();
+        for (ExecutableElement method : abstractMethods.build()) {
+            String name = method.getSimpleName().toString();
+            String humanName = allPrefixed ? Introspector.decapitalize(name.substring(prefixLength(method))) : name;
+            TypeMirror returnType = method.getReturnType();
+            Container container = getContainer(returnType);
+            TypeMirror nested = returnType;
+            if (container == Container.LIST) {
+                nested = ((DeclaredType) returnType).getTypeArguments().get(0);
+            } else if (container == Container.MAP) {
+                nested = ((DeclaredType) returnType).getTypeArguments().get(1);
+            }
+            ClassName deserializer = getGeneratedDeserializer(nested, element);
+            if (deserializer != null) {
+                ClassName existing = deserializers.get(deserializer.simpleName());
+                if (existing == null) {
+                    deserializers.put(deserializer.simpleName(), deserializer);
+                } else if (!existing.equals(deserializer)) {
+                    deserializer = null;
+                }
+            }
+            values.add(new Property(humanName, method, container, deserializer,
+                    mentionsTypeVariable(returnType), getDecodableEnum(returnType)));
+        }
+        return values.build();
+    }
+
+    /**
+     * Returns the enum a property of this type holds if its constants are only ever written as their names or
+     * {@code @JsonProperty} values. Enums with a {@code @JsonValue} or {@code @JsonCreator} method, or a
+     * {@code @JsonFormat} or {@code @JsonDeserialize} of their own, are left to databind.
+     */
+    private TypeElement getDecodableEnum(TypeMirror type) {
+        if (type.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        TypeElement element = (TypeElement) ((DeclaredType) type).asElement();
+        if (element.getKind() != ElementKind.ENUM
+                || element.getAnnotation(JsonFormat.class) != null
+                || element.getAnnotation(JsonDeserialize.class) != null) {
+            return null;
+        }
+        for (ExecutableElement method : ElementFilter.methodsIn(element.getEnclosedElements())) {
+            if (method.getAnnotation(JsonValue.class) != null || method.getAnnotation(JsonCreator.class) != null) {
+                return null;
+            }
+        }
+        return element;
+    }
+
+    private boolean mentionsTypeVariable(TypeMirror type) {
+        switch (type.getKind()) {
+            case TYPEVAR:
+                return true;
+            case ARRAY:
+                return mentionsTypeVariable(((ArrayType) type).getComponentType());
+            case WILDCARD:
+                WildcardType wildcard = (WildcardType) type;
+                return (wildcard.getExtendsBound() != null && mentionsTypeVariable(wildcard.getExtendsBound()))
+                        || (wildcard.getSuperBound() != null && mentionsTypeVariable(wildcard.getSuperBound()));
+            case DECLARED:
+                for (TypeMirror argument : ((DeclaredType) type).getTypeArguments()) {
+                    if (mentionsTypeVariable(argument)) {
+                        return true;
+                    }
+                }
+                return false;
+            default:
+                return false;
+        }
+    }
+
+    private Container getContainer(TypeMirror type) {
+        if (type.getKind() != TypeKind.DECLARED) {
+            return Container.NONE;
+        }
+        List<? extends TypeMirror> typeArguments = ((DeclaredType) type).getTypeArguments();
+        TypeMirror erasure = typeUtils.erasure(type);
+        if (typeArguments.size() == 1 && isErasureOf(erasure, List.class)) {
+            return Container.LIST;
+        }
+        if (typeArguments.size() == 2 && isErasureOf(erasure, Map.class)
+                && typeUtils.isSameType(typeArguments.get(0), elementUtils.getTypeElement(String.class.getName()).asType())) {
+            return Container.MAP;
+        }
+        return Container.NONE;
+    }
+
+    private boolean isErasureOf(TypeMirror erasure, Class<?> type) {
+        return typeUtils.isSameType(erasure, typeUtils.erasure(elementUtils.getTypeElement(type.getName()).asType()));
+    }
+
+    /**
+     * Returns the deserializer this processor generates for {@code type}, or null if {@code type} does not get one
+     * or it is not visible from {@code owner}'s deserializer. Calling it directly gives nested objects a monomorphic
+     * call instead of a deserializer lookup per value. Only the {@code using} is checked, since a nested type from a
+     * class file, unchanged or from another module, no longer carries {@code @AutoValue}.
+     */
+    private ClassName getGeneratedDeserializer(TypeMirror type, TypeElement owner) {
+        if (type.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        Element element = ((DeclaredType) type).asElement();
+        String classPackage = getPackageName(element);
+        ClassName deserializer = ClassName.get(classPackage, element.getSimpleName() + "Deserializer");
+        if (!GeneratorUtils.usesGeneratedClass(element, "JsonDeserialize", deserializer)
+                || !((TypeElement) element).getTypeParameters().isEmpty()) {
+            return null;
+        }
+        if (!element.getModifiers().contains(Modifier.PUBLIC) && !classPackage.equals(getPackageName(owner))) {
+            return null;
+        }
+        return deserializer;
+    }
+
+    /**
+     * Field dispatch is a {@code switch} on the field name, so two properties mapped to the same JSON name would
+     * generate duplicate case labels.
+     */
+    private boolean hasDuplicateJsonNames(TypeElement element, ImmutableList<Property> properties) {
+        Set<String> jsonNames = new HashSet<>();
+        boolean duplicates = false;
+        for (Property property : properties) {
+            if (!jsonNames.add(property.jsonName)) {
+                error(element, "Duplicate JSON property name \"%s\" on %s", property.jsonName, element.getSimpleName());
+                duplicates = true;
+            }
+        }
+        return duplicates;
+    }
+
+    /**
+     * Rejects {@code @Intern} properties that are not Strings or are {@code @LazyProperty}.
+     */
+    private boolean hasInvalidInternProperties(TypeElement element, ImmutableList<Property> properties) {
+        boolean invalid = false;
+        for (Property property : properties) {
+            if (!property.intern) {
+                continue;
+            }
+            if (!property.type.withoutAnnotations().equals(ClassName.get(String.class)) || property.lazy) {
+                error(element, "@Intern property %s on %s must be a String and not a @LazyProperty",
+                        property.methodName, element.getSimpleName());
+                invalid = true;
+            } else if (property.internCapacity <= 0) {
+                error(element, "@Intern capacity of %s on %s must be positive",
+                        property.methodName, element.getSimpleName());
+                invalid = true;
+            }
+        }
+        return invalid;
+    }
+
+    /**
+     * Interning compares instances with {@code equals}, which would decode every {@code @LazyProperty}.
+     */
+    private boolean hasInvalidInternedClass(TypeElement element, ImmutableList<Property> properties) {
+        Intern interned = element.getAnnotation(Intern.class);
+        if (interned == null) {
+            return false;
+        }
+        boolean invalid = false;
+        if (interned.capacity() <= 0) {
+            error(element, "@Intern capacity of %s must be positive", element.getSimpleName());
+            invalid = true;
+        }
+        for (Property property : properties) {
+            if (property.lazy) {
+                error(element, "@Intern class %s cannot have @LazyProperty %s", element.getSimpleName(),
+                        property.methodName);
+                invalid = true;
+            }
+        }
+        return invalid;
+    }
+
+    private FieldSpec generateInstancesField(TypeElement element, int capacity) {
+        TypeName valueType = element.getTypeParameters().isEmpty() ? ClassName.get(element) : ClassName.OBJECT;
+        return FieldSpec.builder(ParameterizedTypeName.get(INSTANCE_INTERNER, valueType), INSTANCES_FIELD_NAME,
+                Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                .initializer("new $T<>($L)", INSTANCE_INTERNER, capacity)
+                .build();
+    }
+
+    private boolean hasInvalidEnums(TypeElement element, ImmutableList<Property> properties) {
+        boolean invalid = false;
+        Set<TypeElement> checked = new HashSet<>();
+        for (Property property : properties) {
+            if (property.enumType != null && checked.add(property.enumType)) {
+                int unknownValues = 0;
+                for (VariableElement constant : enumConstants(property.enumType)) {
+                    if (constant.getAnnotation(UnknownEnumValue.class) != null) {
+                        unknownValues++;
+                    }
+                }
+                if (unknownValues > 1) {
+                    error(element, "%s has more than one @UnknownEnumValue constant", property.enumType.getSimpleName());
+                    invalid = true;
+                }
+            }
+        }
+        return invalid;
+    }
+
+    private List<VariableElement> enumConstants(TypeElement enumType) {
+        List<VariableElement> constants = new ArrayList<>();
+        for (VariableElement field : ElementFilter.fieldsIn(enumType.getEnclosedElements())) {
+            if (field.getKind() == ElementKind.ENUM_CONSTANT) {
+                constants.add(field);
+            }
+        }
+        return constants;
+    }
+
+    /**
+     * Mirrors AutoValue's handling of JavaBeans-style accessors: {@code getFoo()} and {@code isFoo()} name the
+     * property {@code foo} when every property method uses one of those prefixes.
+     */
+    private int prefixLength(ExecutableElement method) {
+        String name = method.getSimpleName().toString();
+        if (name.startsWith("get") && name.length() > 3) {
+            return 3;
+        }
+        if (name.startsWith("is") && name.length() > 2 && method.getReturnType().getKind() == TypeKind.BOOLEAN) {
+            return 2;
+        }
+        return 0;
+    }
+
+    private FieldSpec generateTypeField(Property property) {
+        TypeSpec typeReference = TypeSpec.anonymousClassBuilder("")
+                .superclass(ParameterizedTypeName.get(ClassName.get(TypeReference.class), property.type))
+                .build();
+        return FieldSpec.builder(JavaType.class, property.typeConstantName(),
+                Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                .initializer("$T.defaultInstance().constructType($L)", TypeFactory.class, typeReference)
+                .build();
+    }
+
+    private FieldSpec generateDeserializerField(Property property) {
+        return FieldSpec.builder(property.nestedDeserializer, property.deserializerConstantName(),
+                Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                .initializer("new $T()", property.nestedDeserializer)
+                .build();
+    }
+
+    /**
+     * Reads a {@code List} or {@code Map<String, ...>} of a class with a generated deserializer, calling that
+     * deserializer for each value. Anything other than an array or object (e.g. a single value accepted as an array)
+     * is left to databind.
+     */
+    private MethodSpec generateContainerReadMethod(Property property) {
+        boolean list = property.container == Container.LIST;
+        MethodSpec.Builder builder = MethodSpec.methodBuilder(property.readMethodName())
+                .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                .addParameter(JsonParser.class, PARSER_VARIABLE_NAME)
+                .addParameter(DeserializationContext.class, CONTEXT_VARIABLE_NAME)
+                .addException(IOException.class)
+                .returns(property.type)
+                .beginControlFlow("if ($N.getCurrentToken() != $T.$L)",
+                        PARSER_VARIABLE_NAME, JsonToken.class, list ? "START_ARRAY" : "START_OBJECT")
+                .addStatement("return $N.<$T>readValue($N, $N)",
+                        CONTEXT_VARIABLE_NAME, property.type, PARSER_VARIABLE_NAME, property.typeConstantName())
+                .endControlFlow();
+        CodeBlock read = CodeBlock.builder().add("$N == $T.VALUE_NULL ? null : $N.deserialize($N, $N)",
+                TOKEN_VARIABLE_NAME, JsonToken.class, property.deserializerConstantName(),
+                PARSER_VARIABLE_NAME, CONTEXT_VARIABLE_NAME).build();
+        if (list) {
+            builder.addStatement("$T values = new $T<>()", property.type, ArrayList.class)
+                    .beginControlFlow("for ($T $N = $N.nextToken(); $N != $T.END_ARRAY; $N = $N.nextToken())",
+                            JsonToken.class, TOKEN_VARIABLE_NAME, PARSER_VARIABLE_NAME, TOKEN_VARIABLE_NAME,
+                            JsonToken.class, TOKEN_VARIABLE_NAME, PARSER_VARIABLE_NAME)
+                    .addStatement("values.add($L)", read)
+                    .endControlFlow();
+        } else {
+            builder.addStatement("$T values = new $T<>()", property.type, LinkedHashMap.class)
+                    .beginControlFlow("for ($T $N = $N.nextToken(); $N == $T.FIELD_NAME; $N = $N.nextToken())",
+                            JsonToken.class, TOKEN_VARIABLE_NAME, PARSER_VARIABLE_NAME, TOKEN_VARIABLE_NAME,
+                            JsonToken.class, TOKEN_VARIABLE_NAME, PARSER_VARIABLE_NAME)
+                    .addStatement("String key = $N.getCurrentName()", PARSER_VARIABLE_NAME)
+                    .addStatement("$N = $N.nextToken()", TOKEN_VARIABLE_NAME, PARSER_VARIABLE_NAME)
+                    .addStatement("values.put(key, $L)", read)
+                    .endControlFlow();
+        }
+        return builder.addStatement("return values").build();
+    }
+
+    /**
+     * Decodes an enum from the parser's text buffer without creating a {@code String}: the text is hashed the way
+     * {@link String#hashCode()} would hash it, the {@code switch} on that hash narrows it down to the constants whose
+     * JSON name has the same hash, and those are compared character by character. Text the parser only holds as a
+     * {@code String}, such as a Smile shared string back-reference, is switched on directly rather than copied into a
+     * buffer. Non-string tokens, unknown values without an {@link UnknownEnumValue} constant, and
+     * {@code READ_ENUMS_USING_TO_STRING} go through databind.
+     */
+    private MethodSpec generateEnumDecodeMethod(Property property) {
+        ClassName enumName = ClassName.get(property.enumType);
+        Map<Integer, List<VariableElement>> constantsByHash = new TreeMap<>();
+        VariableElement unknownValue = null;
+        for (VariableElement constant : enumConstants(property.enumType)) {
+            List<VariableElement> constants = constantsByHash.get(enumJsonName(constant).hashCode());
+            if (constants == null) {
+                constants = new ArrayList<>();
+                constantsByHash.put(enumJsonName(constant).hashCode(), constants);
+            }
+            constants.add(constant);
+            if (constant.getAnnotation(UnknownEnumValue.class) != null) {
+                unknownValue = constant;
+            }
+        }
+        MethodSpec.Builder builder = MethodSpec.methodBuilder(property.decodeMethodName())
+                .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                .addParameter(JsonParser.class, PARSER_VARIABLE_NAME)
+                .addParameter(DeserializationContext.class, CONTEXT_VARIABLE_NAME)
                 .addException(IOException.class)
-                .returns(ClassName.get(element.asType()))
-                .beginControlFlow("if ($L.getCurrentToken() == null)", PARSER_VARIABLE_NAME)
-                .addStatement("$L.nextToken()", PARSER_VARIABLE_NAME)
+                .returns(enumName)
+                .beginControlFlow("if ($N.getCurrentToken() != $T.VALUE_STRING"
+                                + " || $N.isEnabled($T.READ_ENUMS_USING_TO_STRING))",
+                        PARSER_VARIABLE_NAME, JsonToken.class, CONTEXT_VARIABLE_NAME, DeserializationFeature.class)
+                .addStatement("return $N.readValue($N, $T.class)", CONTEXT_VARIABLE_NAME, PARSER_VARIABLE_NAME,
+                        enumName)
                 .endControlFlow()
-                .beginControlFlow("if ($L.getCurrentToken() != $T.START_OBJECT)", PARSER_VARIABLE_NAME, JsonToken.class)
-                .addStatement("$L.skipChildren()", PARSER_VARIABLE_NAME)
-                .addStatement("return null")
+                .beginControlFlow("if ($N.hasTextCharacters())", PARSER_VARIABLE_NAME)
+                .addStatement("char[] text = $N.getTextCharacters()", PARSER_VARIABLE_NAME)
+                .addStatement("int offset = $N.getTextOffset()", PARSER_VARIABLE_NAME)
+                .addStatement("int length = $N.getTextLength()", PARSER_VARIABLE_NAME)
+                .addStatement("int hash = 0")
+                .beginControlFlow("for (int i = offset, end = offset + length; i < end; i++)")
+                .addStatement("hash = 31 * hash + text[i]")
                 .endControlFlow()
-                .beginControlFlow("while ($L.nextToken() != $T.END_OBJECT)", PARSER_VARIABLE_NAME, JsonToken.class)
-                .addStatement("String fieldName = $L.getCurrentName()", PARSER_VARIABLE_NAME)
-                .addStatement("$L.nextToken()", PARSER_VARIABLE_NAME)
-                .addStatement("parse(fieldName, $L)", PARSER_VARIABLE_NAME)
-                .addStatement("$L.skipChildren()", PARSER_VARIABLE_NAME)
+                .beginControlFlow("switch (hash)");
+        for (Map.Entry<Integer, List<VariableElement>> entry : constantsByHash.entrySet()) {
+            builder.addCode("case $L:\n$>", entry.getKey());
+            for (VariableElement constant : entry.getValue()) {
+                builder.beginControlFlow("if (textEquals(text, offset, length, $S))", enumJsonName(constant))
+                        .addStatement("return $T.$N", enumName, constant.getSimpleName().toString())
+                        .endControlFlow();
+            }
+            builder.addStatement("break")
+                    .addCode("$<");
+        }
+        builder.endControlFlow()
+                .nextControlFlow("else")
+                .beginControlFlow("switch ($N.getText())", PARSER_VARIABLE_NAME);
+        Set<String> jsonNames = new HashSet<>();
+        for (VariableElement constant : enumConstants(property.enumType)) {
+            if (jsonNames.add(enumJsonName(constant))) {
+                builder.addCode("case $S:\n$>", enumJsonName(constant))
+                        .addStatement("return $T.$N", enumName, constant.getSimpleName().toString())
+                        .addCode("$<");
+            }
+        }
+        builder.endControlFlow()
                 .endControlFlow();
-        String returnClass = getReturnedClassName(element.getSimpleName().toString(), element.getEnclosingElement());
-        String args = returnArgumentStringBuilder.substring(0, returnArgumentStringBuilder.length() - 2);
-        builder.addCode("return new AutoValue_$L(" + args, returnClass);
-        builder.addCode(");\n");
+        if (unknownValue != null) {
+            builder.addStatement("return $T.$N", enumName, unknownValue.getSimpleName().toString());
+        } else {
+            builder.addStatement("return $N.readValue($N, $T.class)", CONTEXT_VARIABLE_NAME, PARSER_VARIABLE_NAME,
+                    enumName);
+        }
         return builder.build();
     }
 
-    private String getReturnedClassName(String base, Element enclosingElement) {
-        if (enclosingElement.getKind().isClass()) {
-            base = enclosingElement.getSimpleName().toString() + "_" + base;
-            return getReturnedClassName(base, enclosingElement.getEnclosingElement());
-        }
-        return base;
+    private String enumJsonName(VariableElement constant) {
+        JsonProperty jsonProperty = constant.getAnnotation(JsonProperty.class);
+        return jsonProperty != null && !jsonProperty.value().isEmpty()
+                ? jsonProperty.value() : constant.getSimpleName().toString();
+    }
+
+    private MethodSpec generateTextEqualsMethod() {
+        return MethodSpec.methodBuilder("textEquals")
+                .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                .addParameter(char[].class, "text")
+                .addParameter(int.class, "offset")
+                .addParameter(int.class, "length")
+                .addParameter(String.class, "expected")
+                .returns(boolean.class)
+                .beginControlFlow("if (length != expected.length())")
+                .addStatement("return false")
+                .endControlFlow()
+                .beginControlFlow("for (int i = 0; i < length; i++)")
+                .beginControlFlow("if (text[offset + i] != expected.charAt(i))")
+                .addStatement("return false")
+                .endControlFlow()
+                .endControlFlow()
+                .addStatement("return true")
+                .build();
+    }
+
+    private FieldSpec generateCanonicalizerField(Property property) {
+        return FieldSpec.builder(STRING_CANONICALIZER, property.canonicalizerConstantName(),
+                Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                .initializer("new $T($L)", STRING_CANONICALIZER, property.internCapacity)
+                .build();
+    }
+
+    /**
+     * Reads a primitive array property element by element into a primitive buffer, so no value is boxed. The buffer
+     * starts small and doubles, keeping the deserializer stateless and small arrays cheap whatever was read before.
+     * Elements that are not plain numbers go through databind's primitive deserializer for coercion, and anything
+     * other than an array is left to databind entirely.
+     */
+    private MethodSpec generatePrimitiveArrayReadMethod(Property property) {
+        return MethodSpec.methodBuilder(property.readMethodName())
+                .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                .addParameter(JsonParser.class, PARSER_VARIABLE_NAME)
+                .addParameter(DeserializationContext.class, CONTEXT_VARIABLE_NAME)
+                .addException(IOException.class)
+                .returns(property.type)
+                .beginControlFlow("if ($N.getCurrentToken() != $T.START_ARRAY)", PARSER_VARIABLE_NAME, JsonToken.class)
+                .addStatement("return $N.readValue($N, $T.class)", CONTEXT_VARIABLE_NAME, PARSER_VARIABLE_NAME,
+                        property.type)
+                .endControlFlow()
+                .addStatement("$T values = new $T[16]", property.type, property.primitiveComponent)
+                .addStatement("int size = 0")
+                .beginControlFlow("for ($T $N = $N.nextToken(); $N != $T.END_ARRAY; $N = $N.nextToken())",
+                        JsonToken.class, TOKEN_VARIABLE_NAME, PARSER_VARIABLE_NAME, TOKEN_VARIABLE_NAME,
+                        JsonToken.class, TOKEN_VARIABLE_NAME, PARSER_VARIABLE_NAME)
+                .beginControlFlow("if (size == values.length)")
+                .addStatement("values = $T.copyOf(values, size << 1)", Arrays.class)
+                .endControlFlow()
+                .addStatement("values[size++] = $L : $N.readValue($N, $T.class)",
+                        getFastPathRead(property.primitiveComponent), CONTEXT_VARIABLE_NAME, PARSER_VARIABLE_NAME,
+                        property.primitiveComponent)
+                .endControlFlow()
+                .addStatement("return size == values.length ? values : $T.copyOf(values, size)", Arrays.class)
+                .build();
     }
 
-    private MethodSpec generateParseMethod(ImmutableList<Element> methods) {
-        MethodSpec.Builder builder = MethodSpec.methodBuilder("parse")
-                .addParameter(ParameterSpec.builder(String.class, "fieldName").build())
-                .addParameter(ParameterSpec.builder(JsonParser.class, "parser").build())
-                .addException(IOException.class);
+    /**
+     * In projection mode a bit is set as each property is read, and once all of them have been every remaining field
+     * is skipped without reading its name or dispatching on it. Required properties set their bit in any mode, so a
+     * missing one is reported by name after a single mask compare rather than as AutoValue's null check failing.
+     */
+    private MethodSpec generateDeserializeMethod(TypeElement element, ImmutableList<Property> properties,
+            boolean projection) {
+        NameAllocator names = new NameAllocator();
+        names.newName(PARSER_VARIABLE_NAME, PARSER_VARIABLE_NAME);
+        names.newName(CONTEXT_VARIABLE_NAME, CONTEXT_VARIABLE_NAME);
+        names.newName(TOKEN_VARIABLE_NAME, TOKEN_VARIABLE_NAME);
+        names.newName(FIELD_NAME_VARIABLE_NAME, FIELD_NAME_VARIABLE_NAME);
+        for (Property property : properties) {
+            names.newName(property.humanName, property);
+        }
+        String start = metrics ? names.newName("start") : null;
+        String startOffset = metrics ? names.newName("startOffset") : null;
+        String value = metrics ? names.newName("value") : null;
 
-        //TODO
-        ImmutableMap<String, ClassName> map = argMap.build();
-        boolean firstStatement = true;
-        for (String arg : map.keySet()) {
-            String ifString = firstStatement ? "if " : "else if ";
-            if (firstStatement) {
-                firstStatement = false;
+        MethodSpec.Builder builder;
+        if (element.getTypeParameters().isEmpty()) {
+            builder = MethodSpec.methodBuilder("deserialize")
+                    .addAnnotation(Override.class)
+                    .addModifiers(Modifier.PUBLIC);
+        } else {
+            builder = MethodSpec.methodBuilder("read")
+                    .addAnnotation(AnnotationSpec.builder(SuppressWarnings.class).addMember("value", "$S", "unchecked").build())
+                    .addModifiers(Modifier.PRIVATE);
+            for (TypeParameterElement typeParameter : element.getTypeParameters()) {
+                builder.addTypeVariable(TypeVariableName.get(typeParameter));
+            }
+        }
+        builder.addParameter(ParameterSpec.builder(JsonParser.class, PARSER_VARIABLE_NAME).build())
+                .addParameter(ParameterSpec.builder(DeserializationContext.class, CONTEXT_VARIABLE_NAME).build())
+                .addException(IOException.class)
+                .returns(TypeName.get(element.asType()));
+        if (metrics) {
+            builder.addStatement("long $N = $T.nanoTime()", start, System.class)
+                    .addStatement("long $N = $T.offset($N.getTokenLocation())", startOffset,
+                            GeneratorUtils.AUTO_JACKSON_METRICS, PARSER_VARIABLE_NAME);
+        }
+        for (Property property : properties) {
+            builder.addStatement("$T $N = $L", property.localType(), names.get(property),
+                    GeneratorUtils.defaultValue(property.localType()));
+        }
+        Map<Integer, String> required = new LinkedHashMap<>();
+        for (int i = 0; i < properties.size(); i++) {
+            if (properties.get(i).required) {
+                required.put(i, properties.get(i).jsonName);
             }
-            builder.beginControlFlow("$L($S.equals(fieldName))", ifString, arg)
-                    .addStatement("$L = parser.$L", arg, getParserMethod(map.get(arg)))
+        }
+        PresenceBits seen = (projection || !required.isEmpty()) && !properties.isEmpty()
+                ? new PresenceBits(names, properties.size()) : null;
+        if (seen != null) {
+            seen.declare(builder);
+        }
+        builder.addStatement("$T $N = $N.getCurrentToken()", JsonToken.class, TOKEN_VARIABLE_NAME, PARSER_VARIABLE_NAME)
+                .beginControlFlow("if ($N == null)", TOKEN_VARIABLE_NAME)
+                .addStatement("$N = $N.nextToken()", TOKEN_VARIABLE_NAME, PARSER_VARIABLE_NAME)
+                .endControlFlow()
+                .beginControlFlow("if ($N == $T.START_OBJECT)", TOKEN_VARIABLE_NAME, JsonToken.class);
+        addOrderedReads(builder, names, properties, seen, projection);
+        // Only a JSON null maps to null; any other non-object root is a mismatch, as with databind's bean deserializer
+        builder.nextControlFlow("else if ($N == $T.VALUE_NULL)", TOKEN_VARIABLE_NAME, JsonToken.class)
+                .addStatement("return null")
+                .nextControlFlow("else if ($N != $T.FIELD_NAME && $N != $T.END_OBJECT)",
+                        TOKEN_VARIABLE_NAME, JsonToken.class, TOKEN_VARIABLE_NAME, JsonToken.class)
+                .addStatement("throw $N.mappingException($T.class, $N)", CONTEXT_VARIABLE_NAME,
+                        ClassName.get(element), TOKEN_VARIABLE_NAME)
+                .endControlFlow()
+                .beginControlFlow("for (; $N == $T.FIELD_NAME; $N = $N.nextToken())",
+                        TOKEN_VARIABLE_NAME, JsonToken.class, TOKEN_VARIABLE_NAME, PARSER_VARIABLE_NAME);
+        if (projection && seen != null) {
+            builder.beginControlFlow("if ($L)", seen.allSet())
+                    .addStatement("$N.nextToken()", PARSER_VARIABLE_NAME)
+                    .addStatement("$N.skipChildren()", PARSER_VARIABLE_NAME)
+                    .addStatement("continue")
                     .endControlFlow();
         }
+        builder.addStatement("String $N = $N.getCurrentName()", FIELD_NAME_VARIABLE_NAME, PARSER_VARIABLE_NAME)
+                .addStatement("$N = $N.nextToken()", TOKEN_VARIABLE_NAME, PARSER_VARIABLE_NAME)
+                .beginControlFlow("if ($N == $T.VALUE_NULL)", TOKEN_VARIABLE_NAME, JsonToken.class)
+                .addStatement("continue")
+                .endControlFlow();
+        builder.beginControlFlow("switch ($N)", FIELD_NAME_VARIABLE_NAME);
+        for (int i = 0; i < properties.size(); i++) {
+            Property property = properties.get(i);
+            builder.addCode("case $S:\n$>", property.jsonName)
+                    .addStatement("$N = $L", names.get(property), getReadExpression(property));
+            if (seen != null && (projection || property.required)) {
+                builder.addStatement("$L", seen.set(i));
+            }
+            builder.addStatement("break")
+                    .addCode("$<");
+        }
+        builder.addCode("default:\n$>");
+        if (metrics) {
+            builder.addStatement("$N.recordUnknownField()", GeneratorUtils.METRICS_FIELD_NAME);
+        }
+        builder.addStatement("$N.skipChildren()", PARSER_VARIABLE_NAME)
+                .addCode("$<")
+                .endControlFlow();
+        builder.endControlFlow();
+        if (!required.isEmpty()) {
+            String missing = names.newName("missing");
+            seen.addRequiredCheck(builder, required, missing, CodeBlock.builder()
+                    .add("throw $T.from($N, $S + $N)", JsonMappingException.class, PARSER_VARIABLE_NAME,
+                            GeneratorUtils.MISSING_PROPERTIES_MESSAGE, missing)
+                    .build());
+        }
 
-        return builder.build();
+        CodeBlock.Builder args = CodeBlock.builder();
+        for (int i = 0, n = properties.size(); i < n; i++) {
+            args.add(i < n - 1 ? "$N, " : "$N", names.get(properties.get(i)));
+        }
+        CodeBlock.Builder typeArguments = CodeBlock.builder();
+        List<? extends TypeParameterElement> typeParameters = element.getTypeParameters();
+        for (int i = 0; i < typeParameters.size(); i++) {
+            typeArguments.add(i == 0 ? "<$L" : ", $L", typeParameters.get(i).getSimpleName());
+            typeArguments.add(i == typeParameters.size() - 1 ? ">" : "");
+        }
+        CodeBlock construct = CodeBlock.builder().add("new $L$L($L)", GeneratorUtils.autoValueClassName(element),
+                typeArguments.build(), args.build()).build();
+        if (element.getAnnotation(Intern.class) != null) {
+            // Generic classes share one interner across their specializations, typed as Object
+            construct = typeParameters.isEmpty()
+                    ? CodeBlock.builder().add("$N.intern($L)", INSTANCES_FIELD_NAME, construct).build()
+                    : CodeBlock.builder().add("($T) $N.intern($L)", TypeName.get(element.asType()),
+                            INSTANCES_FIELD_NAME, construct).build();
+        }
+        if (!metrics) {
+            builder.addStatement("return $L", construct);
+            return builder.build();
+        }
+        return builder.addStatement("$T $N = $L", TypeName.get(element.asType()), value, construct)
+                .addStatement("$N.recordRead($T.offset($N.getCurrentLocation()) - $N, $T.nanoTime() - $N)",
+                        GeneratorUtils.METRICS_FIELD_NAME, GeneratorUtils.AUTO_JACKSON_METRICS, PARSER_VARIABLE_NAME,
+                        startOffset, System.class, start)
+                .addStatement("return $N", value)
+                .build();
+    }
+
+    /**
+     * Reads properties sent in declaration order by matching each field name against its pre-encoded
+     * {@link SerializedString}, which the byte and char based parsers compare against their input buffer without
+     * decoding or looking up a {@code String}. The first name that does not match leaves the parser on that field (or
+     * the end of the object), and the {@code switch} loop picks up from there.
+     */
+    private void addOrderedReads(MethodSpec.Builder builder, NameAllocator names, ImmutableList<Property> properties,
+            PresenceBits seen, boolean projection) {
+        if (properties.isEmpty()) {
+            builder.addStatement("$N = $N.nextToken()", TOKEN_VARIABLE_NAME, PARSER_VARIABLE_NAME);
+            return;
+        }
+        builder.beginControlFlow("ordered:");
+        for (int i = 0; i < properties.size(); i++) {
+            Property property = properties.get(i);
+            builder.beginControlFlow("if (!$N.nextFieldName($N))", PARSER_VARIABLE_NAME, property.nameConstantName())
+                    .addStatement("break ordered")
+                    .endControlFlow()
+                    .addStatement("$N = $N.nextToken()", TOKEN_VARIABLE_NAME, PARSER_VARIABLE_NAME)
+                    .beginControlFlow("if ($N != $T.VALUE_NULL)", TOKEN_VARIABLE_NAME, JsonToken.class)
+                    .addStatement("$N = $L", names.get(property), getReadExpression(property));
+            if (seen != null && (projection || property.required)) {
+                builder.addStatement("$L", seen.set(i));
+            }
+            builder.endControlFlow();
+        }
+        builder.addStatement("$N.nextToken()", PARSER_VARIABLE_NAME)
+                .endControlFlow()
+                .addStatement("$N = $N.getCurrentToken()", TOKEN_VARIABLE_NAME, PARSER_VARIABLE_NAME);
+    }
+
+    /**
+     * Copies the value at the parser into a {@link TokenBuffer} that keeps the parser's codec, so
+     * {@code @LazyProperty} accessors can decode it later.
+     */
+    private MethodSpec generateCaptureMethod() {
+        return MethodSpec.methodBuilder("capture")
+                .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                .addParameter(JsonParser.class, PARSER_VARIABLE_NAME)
+                .addParameter(DeserializationContext.class, CONTEXT_VARIABLE_NAME)
+                .addException(IOException.class)
+                .returns(TokenBuffer.class)
+                .addStatement("$T buffer = new $T($N, $N)", TokenBuffer.class, TokenBuffer.class,
+                        PARSER_VARIABLE_NAME, CONTEXT_VARIABLE_NAME)
+                .addStatement("buffer.copyCurrentStructure($N)", PARSER_VARIABLE_NAME)
+                .addStatement("return buffer")
+                .build();
+    }
+
+    private FieldSpec generateNameField(Property property) {
+        return FieldSpec.builder(SerializedString.class, property.nameConstantName(),
+                Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                .initializer("new $T($S)", SerializedString.class, property.jsonName)
+                .build();
+    }
+
+    /**
+     * The type the deserializer produces: the value class itself, or the value class with wildcards if it is generic.
+     */
+    private TypeName getValueType(TypeElement element) {
+        if (element.getTypeParameters().isEmpty()) {
+            return ClassName.get(element);
+        }
+        TypeName[] wildcards = new TypeName[element.getTypeParameters().size()];
+        Arrays.fill(wildcards, WildcardTypeName.subtypeOf(Object.class));
+        return ParameterizedTypeName.get(ClassName.get(element), wildcards);
     }
 
-    private String getParserMethod(ClassName argClass) {
-        switch (argClass.simpleName()) {
-            case ("Long"):
-                return "getValueAsLong()";
-            case ("String"):
-                return "getValueAsString()";
+    /**
+     * Generic classes get a deserializer that specializes itself per concrete {@link JavaType} in
+     * {@code createContextual}. Each specialization resolves the types of the properties that use a type parameter
+     * once, and the deserializers for them on first use, so reading afterwards costs the same as for a non-generic
+     * class. Specializations are cached on the instance Jackson caches, which is one per mapper.
+     */
+    private void addSpecialization(TypeSpec.Builder builder, ClassName deserializerName, TypeElement element,
+            ImmutableList<Property> properties) {
+        TypeName cacheType = ParameterizedTypeName.get(ClassName.get(ConcurrentMap.class),
+                ClassName.get(JavaType.class), deserializerName);
+        builder.addSuperinterface(ContextualDeserializer.class)
+                .addField(cacheType, "specialized", Modifier.PRIVATE, Modifier.FINAL);
+        MethodSpec.Builder publicConstructor = MethodSpec.constructorBuilder()
+                .addModifiers(Modifier.PUBLIC)
+                .addStatement("this.specialized = new $T<>()", ConcurrentHashMap.class);
+        MethodSpec.Builder specializedConstructor = MethodSpec.constructorBuilder()
+                .addModifiers(Modifier.PRIVATE)
+                .addStatement("this.specialized = null");
+        CodeBlock.Builder types = CodeBlock.builder();
+        List<MethodSpec> findMethods = new ArrayList<>();
+        boolean first = true;
+        for (Property property : properties) {
+            if (!property.generic) {
+                continue;
+            }
+            builder.addField(JavaType.class, property.javaTypeFieldName(), Modifier.PRIVATE, Modifier.FINAL)
+                    .addField(ParameterizedTypeName.get(ClassName.get(JsonDeserializer.class), ClassName.OBJECT),
+                            property.deserializerFieldName(), Modifier.PRIVATE, Modifier.VOLATILE);
+            publicConstructor.addStatement("this.$N = null", property.javaTypeFieldName());
+            specializedConstructor.addParameter(JavaType.class, property.javaTypeFieldName())
+                    .addStatement("this.$N = $N", property.javaTypeFieldName(), property.javaTypeFieldName());
+            types.add(first ? "$L" : ", $L", getJavaTypeExpression(property.typeMirror, element));
+            first = false;
+            findMethods.add(generateFindDeserializerMethod(property));
+        }
+        builder.addMethod(publicConstructor.build())
+                .addMethod(specializedConstructor.build());
+
+        TypeName valueClass = ClassName.get(element);
+        builder.addMethod(MethodSpec.methodBuilder("createContextual")
+                .addAnnotation(Override.class)
+                .addModifiers(Modifier.PUBLIC)
+                .addParameter(DeserializationContext.class, CONTEXT_VARIABLE_NAME)
+                .addParameter(BeanProperty.class, "property")
+                .returns(ParameterizedTypeName.get(ClassName.get(JsonDeserializer.class), WildcardTypeName.subtypeOf(Object.class)))
+                .beginControlFlow("if (specialized == null)")
+                .addStatement("return this")
+                .endControlFlow()
+                .addStatement("$T type = $N.getContextualType()", JavaType.class, CONTEXT_VARIABLE_NAME)
+                .beginControlFlow("if (type == null || type.getRawClass() != $T.class)", valueClass)
+                .addStatement("type = $N.constructType($T.class)", CONTEXT_VARIABLE_NAME, valueClass)
+                .endControlFlow()
+                .addStatement("$T deserializer = specialized.get(type)", deserializerName)
+                .beginControlFlow("if (deserializer == null)")
+                .addStatement("$T typeFactory = $N.getTypeFactory()", TypeFactory.class, CONTEXT_VARIABLE_NAME)
+                .addStatement("deserializer = new $T($L)", deserializerName, types.build())
+                .addStatement("$T existing = specialized.putIfAbsent(type, deserializer)", deserializerName)
+                .beginControlFlow("if (existing != null)")
+                .addStatement("deserializer = existing")
+                .endControlFlow()
+                .endControlFlow()
+                .addStatement("return deserializer")
+                .build());
+
+        builder.addMethod(MethodSpec.methodBuilder("deserialize")
+                .addAnnotation(Override.class)
+                .addModifiers(Modifier.PUBLIC)
+                .addParameter(JsonParser.class, PARSER_VARIABLE_NAME)
+                .addParameter(DeserializationContext.class, CONTEXT_VARIABLE_NAME)
+                .addException(IOException.class)
+                .returns(getValueType(element))
+                .beginControlFlow("if (specialized != null)")
+                .addStatement("return (($T) createContextual($N, null)).read($N, $N)", deserializerName,
+                        CONTEXT_VARIABLE_NAME, PARSER_VARIABLE_NAME, CONTEXT_VARIABLE_NAME)
+                .endControlFlow()
+                .addStatement("return read($N, $N)", PARSER_VARIABLE_NAME, CONTEXT_VARIABLE_NAME)
+                .build())
+                .addMethods(findMethods);
+    }
+
+    private MethodSpec generateFindDeserializerMethod(Property property) {
+        return MethodSpec.methodBuilder(property.findDeserializerMethodName())
+                .addModifiers(Modifier.PRIVATE)
+                .addParameter(DeserializationContext.class, CONTEXT_VARIABLE_NAME)
+                .addException(JsonMappingException.class)
+                .returns(ParameterizedTypeName.get(ClassName.get(JsonDeserializer.class), ClassName.OBJECT))
+                .addStatement("$T<$T> deserializer = $N", JsonDeserializer.class, Object.class,
+                        property.deserializerFieldName())
+                .beginControlFlow("if (deserializer == null)")
+                .addStatement("deserializer = $N.findContextualValueDeserializer($N, null)",
+                        CONTEXT_VARIABLE_NAME, property.javaTypeFieldName())
+                .addStatement("$N = deserializer", property.deserializerFieldName())
+                .endControlFlow()
+                .addStatement("return deserializer")
+                .build();
+    }
+
+    /**
+     * Builds {@code type} as a {@link JavaType} inside {@code createContextual}, where {@code type} holds the concrete
+     * type being specialized for and {@code typeFactory} its factory.
+     */
+    private CodeBlock getJavaTypeExpression(TypeMirror type, TypeElement element) {
+        switch (type.getKind()) {
+            case TYPEVAR:
+                int index = element.getTypeParameters().indexOf(((TypeVariable) type).asElement());
+                return CodeBlock.builder().add("type.containedTypeOrUnknown($L)", index).build();
+            case ARRAY:
+                return CodeBlock.builder().add("typeFactory.constructArrayType($L)",
+                        getJavaTypeExpression(((ArrayType) type).getComponentType(), element)).build();
+            case WILDCARD:
+                TypeMirror bound = ((WildcardType) type).getExtendsBound();
+                return bound != null ? getJavaTypeExpression(bound, element)
+                        : CodeBlock.builder().add("typeFactory.constructType($T.class)", Object.class).build();
             default:
-                return null;
+                if (!mentionsTypeVariable(type)) {
+                    return isParameterized(type)
+                            ? CodeBlock.builder().add("typeFactory.constructType(new $T<$T>() {})",
+                                    TypeReference.class, TypeName.get(type)).build()
+                            : CodeBlock.builder().add("typeFactory.constructType($T.class)",
+                                    typeUtils.erasure(type)).build();
+                }
+                CodeBlock.Builder builder = CodeBlock.builder().add("typeFactory.constructParametricType($T.class",
+                        typeUtils.erasure(type));
+                for (TypeMirror argument : ((DeclaredType) type).getTypeArguments()) {
+                    builder.add(", $L", getJavaTypeExpression(argument, element));
+                }
+                return builder.add(")").build();
         }
     }
 
+    /**
+     * All parsing state lives in locals of {@code deserialize}, so a single instance can be cached by Jackson and
+     * shared across threads.
+     */
+    private MethodSpec generateIsCachableMethod() {
+        return MethodSpec.methodBuilder("isCachable")
+                .addAnnotation(Override.class)
+                .addModifiers(Modifier.PUBLIC)
+                .returns(TypeName.BOOLEAN)
+                .addStatement("return true")
+                .build();
+    }
+
+    /**
+     * Reads a top-level array (or a sequence of root-level values) one element at a time through this deserializer,
+     * so memory use does not depend on the number of elements.
+     */
+    private MethodSpec generateIterateParserMethod(TypeElement element) {
+        TypeName valueType = ClassName.get(element.asType());
+        return MethodSpec.methodBuilder("iterate")
+                .addJavadoc("Lazily reads the elements of the array {@code $N} points at (or, if it is not at an array, the\n"
+                        + "sequence of root-level values that follows).\n", PARSER_VARIABLE_NAME)
+                .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                .addParameter(ObjectMapper.class, "mapper")
+                .addParameter(JsonParser.class, PARSER_VARIABLE_NAME)
+                .addException(IOException.class)
+                .returns(ParameterizedTypeName.get(ClassName.get(MappingIterator.class), valueType))
+                .beginControlFlow("if ($N.getCurrentToken() == null)", PARSER_VARIABLE_NAME)
+                .addStatement("$N.nextToken()", PARSER_VARIABLE_NAME)
+                .endControlFlow()
+                .beginControlFlow("if ($N.getCurrentToken() == $T.START_ARRAY)", PARSER_VARIABLE_NAME, JsonToken.class)
+                .addStatement("$N.clearCurrentToken()", PARSER_VARIABLE_NAME)
+                .endControlFlow()
+                .addStatement("return mapper.readerFor($T.class).readValues($N)", valueType, PARSER_VARIABLE_NAME)
+                .build();
+    }
+
+    private MethodSpec generateIterateStreamMethod(TypeElement element) {
+        TypeName valueType = ClassName.get(element.asType());
+        return MethodSpec.methodBuilder("iterate")
+                .addJavadoc("Lazily reads a top-level array from {@code input}, which is closed along with the returned\n"
+                        + "iterator.\n")
+                .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                .addParameter(ObjectMapper.class, "mapper")
+                .addParameter(InputStream.class, "input")
+                .addException(IOException.class)
+                .returns(ParameterizedTypeName.get(ClassName.get(MappingIterator.class), valueType))
+                .addStatement("return mapper.readerFor($T.class).readValues(input)", valueType)
+                .build();
+    }
+
+    /**
+     * A heap buffer is parsed in place from its backing array and any other buffer is streamed to the parser, so
+     * neither direction stages the bytes in a {@code byte[]} of their own. The no-mapper overloads bind a reader and
+     * writer for the class once, up front.
+     */
+    private TypeSpec generateCodec(TypeElement element) {
+        ClassName valueType = ClassName.get(element);
+        TypeName listenerType = ParameterizedTypeName.get(CHUNKED_JSON_READER.nestedClass("Listener"),
+                WildcardTypeName.supertypeOf(valueType));
+        TypeName readerType = ParameterizedTypeName.get(CHUNKED_JSON_READER, valueType);
+        TypeSpec.Builder codec = TypeSpec.classBuilder(element.getSimpleName() + "Codec")
+                .addJavadoc("Reads and writes {@link $T} values directly from and to {@link $T}s.\n", valueType,
+                        ByteBuffer.class)
+                .addModifiers(Modifier.FINAL)
+                .addField(FieldSpec.builder(ObjectReader.class, "READER", Modifier.PRIVATE, Modifier.STATIC,
+                        Modifier.FINAL)
+                        .initializer("$T.defaultMapper().readerFor($T.class)", BYTE_BUFFER_CODEC, valueType)
+                        .build())
+                .addField(FieldSpec.builder(ObjectWriter.class, "WRITER", Modifier.PRIVATE, Modifier.STATIC,
+                        Modifier.FINAL)
+                        .initializer("$T.defaultMapper().writerFor($T.class)", BYTE_BUFFER_CODEC, valueType)
+                        .build())
+                .addMethod(MethodSpec.constructorBuilder().addModifiers(Modifier.PRIVATE).build())
+                .addMethod(MethodSpec.methodBuilder("read")
+                        .addJavadoc("Reads the value held in the remaining bytes of {@code buffer} and moves its "
+                                + "position to its limit.\n")
+                        .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                        .addParameter(ByteBuffer.class, "buffer")
+                        .addException(IOException.class)
+                        .returns(valueType)
+                        .addStatement("return $T.read(READER, buffer)", BYTE_BUFFER_CODEC)
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("read")
+                        .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                        .addParameter(ObjectMapper.class, "mapper")
+                        .addParameter(ByteBuffer.class, "buffer")
+                        .addException(IOException.class)
+                        .returns(valueType)
+                        .addStatement("return $T.read(mapper.readerFor($T.class), buffer)", BYTE_BUFFER_CODEC,
+                                valueType)
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("write")
+                        .addJavadoc("Writes {@code value} at the position of {@code buffer} and moves the position "
+                                + "past it, throwing\n{@code ByteBufferOverflowException} instead of growing the "
+                                + "buffer if it does not fit.\n")
+                        .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                        .addParameter(valueType, "value")
+                        .addParameter(ByteBuffer.class, "buffer")
+                        .addException(IOException.class)
+                        .addStatement("$T.write(WRITER, value, buffer)", BYTE_BUFFER_CODEC)
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("write")
+                        .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                        .addParameter(ObjectMapper.class, "mapper")
+                        .addParameter(valueType, "value")
+                        .addParameter(ByteBuffer.class, "buffer")
+                        .addException(IOException.class)
+                        .addStatement("$T.write(mapper.writerFor($T.class), value, buffer)", BYTE_BUFFER_CODEC,
+                                valueType)
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("chunkedReader")
+                        .addJavadoc("Reads values from input fed in chunks of any size, handing each to {@code listener} "
+                                + "once all of its\nbytes have arrived.\n")
+                        .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                        .addParameter(listenerType, "listener")
+                        .returns(readerType)
+                        .addStatement("return new $T<>(READER, listener)", CHUNKED_JSON_READER)
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("chunkedReader")
+                        .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                        .addParameter(ObjectMapper.class, "mapper")
+                        .addParameter(listenerType, "listener")
+                        .returns(readerType)
+                        .addStatement("return new $T<>(mapper.readerFor($T.class), listener)", CHUNKED_JSON_READER,
+                                valueType)
+                        .build())
+                .addOriginatingElement(element);
+        if (element.getModifiers().contains(Modifier.PUBLIC)) {
+            codec.addModifiers(Modifier.PUBLIC);
+        }
+        return codec.build();
+    }
+
+    /**
+     * Scalars are read straight off the parser into primitives when the current token is the expected one. Any other
+     * token (e.g. a number sent as a string) falls back to databind so coercion and error reporting stay the same.
+     */
+    private CodeBlock getReadExpression(Property property) {
+        if (property.generic) {
+            return CodeBlock.builder().add("($T) $N($N).deserialize($N, $N)", property.type,
+                    property.findDeserializerMethodName(), CONTEXT_VARIABLE_NAME,
+                    PARSER_VARIABLE_NAME, CONTEXT_VARIABLE_NAME).build();
+        }
+        if (property.lazy) {
+            return CodeBlock.builder().add("capture($N, $N)", PARSER_VARIABLE_NAME, CONTEXT_VARIABLE_NAME).build();
+        }
+        if (property.nestedDeserializer != null) {
+            if (property.container == Container.NONE) {
+                // Anything but an object goes through databind, like the container helpers, so mismatches are
+                // reported the same way
+                return CodeBlock.builder().add("$N == $T.START_OBJECT ? $N.deserialize($N, $N) : $N.readValue($N, $T.class)",
+                        TOKEN_VARIABLE_NAME, JsonToken.class, property.deserializerConstantName(), PARSER_VARIABLE_NAME,
+                        CONTEXT_VARIABLE_NAME, CONTEXT_VARIABLE_NAME, PARSER_VARIABLE_NAME,
+                        property.type.withoutAnnotations()).build();
+            }
+            return CodeBlock.builder().add("$N($N, $N)",
+                    property.readMethodName(), PARSER_VARIABLE_NAME, CONTEXT_VARIABLE_NAME).build();
+        }
+        if (property.intern) {
+            return CodeBlock.builder().add("$N == $T.VALUE_STRING ? $N.canonicalize($N) : $N.readValue($N, $T.class)",
+                    TOKEN_VARIABLE_NAME, JsonToken.class, property.canonicalizerConstantName(), PARSER_VARIABLE_NAME,
+                    CONTEXT_VARIABLE_NAME, PARSER_VARIABLE_NAME, String.class).build();
+        }
+        if (property.enumType != null) {
+            return CodeBlock.builder().add("$N($N, $N)",
+                    property.decodeMethodName(), PARSER_VARIABLE_NAME, CONTEXT_VARIABLE_NAME).build();
+        }
+        if (property.primitiveComponent != null) {
+            return CodeBlock.builder().add("$N($N, $N)",
+                    property.readMethodName(), PARSER_VARIABLE_NAME, CONTEXT_VARIABLE_NAME).build();
+        }
+        CodeBlock fastPath = getFastPathRead(property.type);
+        if (fastPath != null) {
+            return CodeBlock.builder()
+                    .add("$L : $N.readValue($N, $T.class)", fastPath, CONTEXT_VARIABLE_NAME, PARSER_VARIABLE_NAME, property.type)
+                    .build();
+        }
+        if (isParameterized(property.typeMirror)) {
+            return CodeBlock.builder().add("$N.<$T>readValue($N, $N)",
+                    CONTEXT_VARIABLE_NAME, property.type, PARSER_VARIABLE_NAME, property.typeConstantName()).build();
+        }
+        return CodeBlock.builder().add("$N.readValue($N, $T.class)",
+                CONTEXT_VARIABLE_NAME, PARSER_VARIABLE_NAME, property.type).build();
+    }
+
+    /**
+     * Returns the {@code condition ? read} part of the read expression for scalar types, or null if the type has
+     * no fast path.
+     */
+    private CodeBlock getFastPathRead(TypeName type) {
+        TypeName primitive = type.isBoxedPrimitive() ? type.unbox() : type;
+        CodeBlock.Builder builder = CodeBlock.builder();
+        if (type.equals(ClassName.get(String.class))) {
+            return builder.add("$N == $T.VALUE_STRING ? $N.getText()",
+                    TOKEN_VARIABLE_NAME, JsonToken.class, PARSER_VARIABLE_NAME).build();
+        } else if (primitive.equals(TypeName.BOOLEAN)) {
+            CodeBlock read = CodeBlock.builder().add("$N == $T.VALUE_TRUE", TOKEN_VARIABLE_NAME, JsonToken.class).build();
+            return builder.add("$N.isBoolean() ? $L", TOKEN_VARIABLE_NAME, boxIfNeeded(type, read)).build();
+        } else if (primitive.equals(TypeName.CHAR)) {
+            CodeBlock read = CodeBlock.builder().add("$N.getTextCharacters()[$N.getTextOffset()]",
+                    PARSER_VARIABLE_NAME, PARSER_VARIABLE_NAME).build();
+            return builder.add("$N == $T.VALUE_STRING && $N.getTextLength() == 1 ? $L",
+                    TOKEN_VARIABLE_NAME, JsonToken.class, PARSER_VARIABLE_NAME, boxIfNeeded(type, read)).build();
+        }
+        String getter;
+        boolean floatingPoint = false;
+        if (primitive.equals(TypeName.INT)) {
+            getter = "getIntValue";
+        } else if (primitive.equals(TypeName.LONG)) {
+            getter = "getLongValue";
+        } else if (primitive.equals(TypeName.SHORT)) {
+            getter = "getShortValue";
+        } else if (primitive.equals(TypeName.BYTE)) {
+            getter = "getByteValue";
+        } else if (primitive.equals(TypeName.DOUBLE)) {
+            getter = "getDoubleValue";
+            floatingPoint = true;
+        } else if (primitive.equals(TypeName.FLOAT)) {
+            getter = "getFloatValue";
+            floatingPoint = true;
+        } else {
+            return null;
+        }
+        CodeBlock read = CodeBlock.builder().add("$N.$L()", PARSER_VARIABLE_NAME, getter).build();
+        if (floatingPoint) {
+            builder.add("$N.isNumeric()", TOKEN_VARIABLE_NAME);
+        } else {
+            builder.add("$N == $T.VALUE_NUMBER_INT", TOKEN_VARIABLE_NAME, JsonToken.class);
+        }
+        return builder.add(" ? $L", boxIfNeeded(type, read)).build();
+    }
+
+    /**
+     * Boxes explicitly so both branches of the read expression are references and a null from databind is never
+     * unboxed.
+     */
+    private CodeBlock boxIfNeeded(TypeName type, CodeBlock read) {
+        if (!type.isBoxedPrimitive()) {
+            return read;
+        }
+        return CodeBlock.builder().add("$T.valueOf($L)", type, read).build();
+    }
+
+    private boolean isParameterized(TypeMirror type) {
+        if (type.getKind() == TypeKind.ARRAY) {
+            return isParameterized(((ArrayType) type).getComponentType());
+        }
+        return type.getKind() == TypeKind.DECLARED && !((DeclaredType) type).getTypeArguments().isEmpty();
+    }
+
     private void error(Element e, String msg, Object... args) {
         messager.printMessage(Diagnostic.Kind.ERROR, String.format(msg, args), e);
     }
 
     @Override
     public Set<String> getSupportedAnnotationTypes() {
-        return ImmutableSet.of(AutoValue.class.getName());
+        return ImmutableSet.of(JsonDeserialize.class.getName());
+    }
+
+    @Override
+    public Set<String> getSupportedOptions() {
+        return ImmutableSet.of(GeneratorUtils.METRICS_OPTION);
     }
 
     @Override
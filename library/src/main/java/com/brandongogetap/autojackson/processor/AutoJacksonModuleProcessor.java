@@ -0,0 +1,145 @@
+package com.brandongogetap.autojackson.processor;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.google.auto.service.AutoService;
+import com.google.common.collect.ImmutableSet;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.TypeSpec;
+
+import javax.annotation.processing.*;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.Elements;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Generates one {@code AutoJacksonModule} per package that registers every generated deserializer and serializer in
+ * it, so a mapper can be handed all of them up front instead of discovering each through the class annotations.
+ * <p>
+ * A module depends on every class of its package, all of which are its originating elements, so the processor is
+ * declared to Gradle as aggregating.
+ */
+@AutoService(Processor.class)
+public final class AutoJacksonModuleProcessor extends AbstractProcessor {
+
+    static final String MODULE_NAME = "AutoJacksonModule";
+
+    private Filer filer;
+    private Messager messager;
+    private Elements elementUtils;
+    /**
+     * Types seen in earlier rounds whose module has not been written yet, by package. Modules are written in the
+     * first round that finds nothing new, after AutoValue and the other processors have generated their classes.
+     */
+    private final Map<String, Set<TypeElement>> pendingTypes = new TreeMap<>();
+
+    @Override
+    public void init(ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+        filer = processingEnv.getFiler();
+        messager = processingEnv.getMessager();
+        elementUtils = processingEnv.getElementUtils();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        boolean found = false;
+        Set<Element> elements = new LinkedHashSet<>();
+        elements.addAll(roundEnv.getElementsAnnotatedWith(JsonDeserialize.class));
+        elements.addAll(roundEnv.getElementsAnnotatedWith(JsonSerialize.class));
+        for (Element element : elements) {
+            if (!usesGeneratedDeserializer(element) && !usesGeneratedSerializer(element)) {
+                continue;
+            }
+            String classPackage = getPackageName(element);
+            Set<TypeElement> types = pendingTypes.get(classPackage);
+            if (types == null) {
+                types = new LinkedHashSet<>();
+                pendingTypes.put(classPackage, types);
+            }
+            types.add((TypeElement) element);
+            found = true;
+        }
+        if (!found || roundEnv.processingOver()) {
+            for (Map.Entry<String, Set<TypeElement>> entry : pendingTypes.entrySet()) {
+                writeModule(entry.getKey(), entry.getValue());
+            }
+            pendingTypes.clear();
+        }
+        return false;
+    }
+
+    /**
+     * Only the {@code using} annotations are checked: Gradle hands an aggregating processor unchanged types as class
+     * files, which have no {@code @AutoValue} on them.
+     */
+    private boolean usesGeneratedDeserializer(Element element) {
+        return GeneratorUtils.usesGeneratedClass(element, "JsonDeserialize", deserializerName(element));
+    }
+
+    private boolean usesGeneratedSerializer(Element element) {
+        return GeneratorUtils.usesGeneratedClass(element, "JsonSerialize", serializerName(element));
+    }
+
+    private ClassName deserializerName(Element element) {
+        return ClassName.get(getPackageName(element), element.getSimpleName() + "Deserializer");
+    }
+
+    private ClassName serializerName(Element element) {
+        return ClassName.get(getPackageName(element), GeneratorUtils.autoValueClassName(element), "Serializer");
+    }
+
+    private String getPackageName(Element element) {
+        return elementUtils.getPackageOf(element).getQualifiedName().toString();
+    }
+
+    private void writeModule(String classPackage, Set<TypeElement> types) {
+        MethodSpec.Builder constructor = MethodSpec.constructorBuilder()
+                .addModifiers(Modifier.PUBLIC)
+                .addStatement("super($S)", classPackage.isEmpty() ? MODULE_NAME : classPackage + "." + MODULE_NAME);
+        TypeSpec.Builder module = TypeSpec.classBuilder(MODULE_NAME)
+                .addJavadoc("Registers the generated deserializers and serializers of this package.\n")
+                .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+                .superclass(SimpleModule.class)
+                .addField(FieldSpec.builder(long.class, "serialVersionUID",
+                        Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL).initializer("1L").build());
+        for (TypeElement type : types) {
+            ClassName valueType = ClassName.get(type);
+            if (usesGeneratedDeserializer(type)) {
+                constructor.addStatement("addDeserializer($T.class, new $T())", valueType, deserializerName(type));
+            }
+            if (usesGeneratedSerializer(type)) {
+                constructor.addStatement("addSerializer($T.class, new $T())", valueType, serializerName(type));
+            }
+            module.addOriginatingElement(type);
+        }
+        try {
+            JavaFile.builder(classPackage, module.addMethod(constructor.build()).build()).build().writeTo(filer);
+        } catch (IOException e) {
+            messager.printMessage(Diagnostic.Kind.ERROR,
+                    String.format("Unable to create %s for %s\n\n%s", MODULE_NAME, classPackage, e.getMessage()));
+        }
+    }
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return ImmutableSet.of(JsonDeserialize.class.getName(), JsonSerialize.class.getName());
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+}
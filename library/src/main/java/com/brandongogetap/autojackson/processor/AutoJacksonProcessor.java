@@ -1,6 +1,19 @@
 package com.brandongogetap.autojackson.processor;
 
+import com.brandongogetap.autojackson.AutoJackson;
+import com.brandongogetap.autojackson.Intern;
+import com.brandongogetap.autojackson.LazyProperty;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonValueInstantiator;
+import com.fasterxml.jackson.databind.deser.ValueInstantiator;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
 import com.google.auto.service.AutoService;
 import com.google.auto.value.extension.AutoValueExtension;
 import com.google.common.collect.ImmutableList;
@@ -9,11 +22,15 @@ import com.google.common.collect.Lists;
 import com.squareup.javapoet.*;
 
 import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
 import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.Modifier;
 import javax.lang.model.element.TypeParameterElement;
 import javax.tools.Diagnostic;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -23,9 +40,12 @@ public class AutoJacksonProcessor extends AutoValueExtension {
     private static final class Property {
         final String methodName;
         final String humanName;
+        final String jsonName;
         final ExecutableElement element;
         final TypeName type;
         final ImmutableSet<AnnotationMirror> annotations;
+        final boolean lazy;
+        final boolean required;
 
         Property(String humanName, ExecutableElement element) {
             this.methodName = element.getSimpleName().toString();
@@ -33,6 +53,22 @@ public class AutoJacksonProcessor extends AutoValueExtension {
             this.element = element;
             type = TypeName.get(element.getReturnType());
             annotations = buildAnnotations(element);
+            JsonProperty jsonProperty = element.getAnnotation(JsonProperty.class);
+            jsonName = jsonProperty != null && !jsonProperty.value().isEmpty() ? jsonProperty.value() : humanName;
+            lazy = element.getAnnotation(LazyProperty.class) != null;
+            required = GeneratorUtils.isRequired(element);
+        }
+
+        String constantName() {
+            return GeneratorUtils.constantName(humanName);
+        }
+
+        String jsonFieldName() {
+            return humanName + "Json";
+        }
+
+        String valueFieldName() {
+            return humanName + "Value";
         }
 
         private ImmutableSet<AnnotationMirror> buildAnnotations(ExecutableElement element) {
@@ -48,20 +84,34 @@ public class AutoJacksonProcessor extends AutoValueExtension {
     @Override
     public boolean applicable(Context context) {
         for (AnnotationMirror annotationMirror : context.autoValueClass().getAnnotationMirrors()) {
-            if (annotationMirror.getAnnotationType().asElement().getSimpleName().toString().equals("JsonDeserialize")) {
-                if (context.autoValueClass().getTypeParameters().isEmpty()) {
-                    return true;
-                } else {
-                    context.processingEnvironment().getMessager().printMessage(
-                            Diagnostic.Kind.ERROR, "Cannot create Builder on classes with type parameters: "
-                                    + context.autoValueClass().getSimpleName() + "<"
-                                    + context.autoValueClass().getTypeParameters().toString() + ">");
-                }
+            String annotationName = annotationMirror.getAnnotationType().asElement().getSimpleName().toString();
+            if (annotationName.equals("JsonDeserialize") || annotationName.equals("JsonSerialize")) {
+                return context.autoValueClass().getTypeParameters().isEmpty() || supportsTypeParameters(context);
             }
         }
         return super.applicable(context);
     }
 
+    /**
+     * Generic classes are supported on the generated deserializer path, which specializes per concrete type; the
+     * Builder and Serializer are not, and asking for either is reported with its own error.
+     */
+    private boolean supportsTypeParameters(Context context) {
+        Element element = context.autoValueClass();
+        String type = element.getSimpleName() + "<" + context.autoValueClass().getTypeParameters() + ">";
+        String error;
+        if (GeneratorUtils.hasAnnotationMember(element, "JsonSerialize", "using")) {
+            error = "Cannot generate " + GeneratorUtils.autoValueClassName(element)
+                    + ".Serializer on classes with type parameters: " + type;
+        } else if (!GeneratorUtils.hasAnnotationMember(element, "JsonDeserialize", "using")) {
+            error = "Cannot create Builder on classes with type parameters: " + type;
+        } else {
+            return true;
+        }
+        context.processingEnvironment().getMessager().printMessage(Diagnostic.Kind.ERROR, error, element);
+        return false;
+    }
+
     @Override
     public String generateClass(Context context, String className, String classToExtend, boolean isFinal) {
         ImmutableList<Property> properties = readProperties(context.properties());
@@ -77,14 +127,236 @@ public class AutoJacksonProcessor extends AutoValueExtension {
         TypeSpec.Builder subclass = TypeSpec.classBuilder(className)
                 .addModifiers(Modifier.FINAL)
                 .superclass(generateSuperType(context, classToExtend, typeVariables))
-                .addTypeVariables(typeVariables)
-                .addMethod(generateConstructor(properties))
-                .addType(getBuilderTypeSpec(context, ClassName.get(context.packageName(), className), typeVariables));
+                .addTypeVariables(typeVariables);
+        boolean deferred = hasLazyProperties(properties) && checkLazyProperties(context, properties);
+        subclass.addMethod(generateConstructor(properties, deferred));
+        if (deferred) {
+            addDeferredDecoding(subclass, context, properties);
+        }
+        if (hasAnnotation(context.autoValueClass(), "JsonDeserialize") && typeVariables.isEmpty()) {
+            subclass.addType(getBuilderTypeSpec(context, ClassName.get(context.packageName(), className), typeVariables));
+        }
+        if (context.autoValueClass().getAnnotation(Intern.class) != null
+                && !GeneratorUtils.hasAnnotationMember(context.autoValueClass(), "JsonDeserialize", "using")) {
+            context.processingEnvironment().getMessager().printMessage(Diagnostic.Kind.WARNING,
+                    "@Intern only canonicalizes instances built by a generated deserializer "
+                            + "(@JsonDeserialize(using = ...)); it has no effect on the Builder",
+                    context.autoValueClass());
+        }
+        if (GeneratorUtils.hasAnnotationMember(context.autoValueClass(), "JsonSerialize", "using")) {
+            subclass.addType(getSerializerTypeSpec(context, properties));
+        }
 
         JavaFile javaFile = JavaFile.builder(context.packageName(), subclass.build()).build();
         return javaFile.toString();
     }
 
+    private boolean hasLazyProperties(ImmutableList<Property> properties) {
+        for (Property property : properties) {
+            if (property.lazy) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The AutoValue fields of a deferred property hold null until it is decoded, so AutoValue's own null check has to
+     * allow it.
+     */
+    private boolean checkLazyProperties(Context context, ImmutableList<Property> properties) {
+        boolean valid = true;
+        for (Property property : properties) {
+            if (property.lazy && (property.type.isPrimitive() || !hasAnnotation(property.element, "Nullable"))) {
+                context.processingEnvironment().getMessager().printMessage(Diagnostic.Kind.ERROR,
+                        "@LazyProperty properties must be @Nullable references", property.element);
+                valid = false;
+            }
+            if (property.lazy && !context.autoValueClass().getTypeParameters().isEmpty()) {
+                context.processingEnvironment().getMessager().printMessage(Diagnostic.Kind.ERROR,
+                        "@LazyProperty is not supported on classes with type parameters", property.element);
+                valid = false;
+            }
+        }
+        return valid;
+    }
+
+    /**
+     * Adds a constructor taking a {@link TokenBuffer} in place of each {@code @LazyProperty} value, and accessors that
+     * decode the buffer on first call. A volatile buffer field guards the decoded value: it is only cleared after the
+     * value is written, under the instance lock. Instances built the ordinary way read straight through to the
+     * AutoValue fields. equals, hashCode and toString go through the accessors so both kinds compare equal.
+     */
+    private void addDeferredDecoding(TypeSpec.Builder subclass, Context context, ImmutableList<Property> properties) {
+        subclass.addField(TypeName.BOOLEAN, "deferred", Modifier.PRIVATE, Modifier.FINAL);
+        MethodSpec.Builder constructor = MethodSpec.constructorBuilder();
+        CodeBlock.Builder superArgs = CodeBlock.builder();
+        for (int i = 0; i < properties.size(); i++) {
+            Property property = properties.get(i);
+            String separator = i < properties.size() - 1 ? ", " : "";
+            if (property.lazy) {
+                constructor.addParameter(TokenBuffer.class, property.jsonFieldName());
+                superArgs.add("null$L", separator);
+            } else {
+                constructor.addParameter(property.type, property.humanName);
+                superArgs.add("$N$L", property.humanName, separator);
+            }
+        }
+        constructor.addStatement("super($L)", superArgs.build());
+        for (Property property : properties) {
+            if (property.lazy) {
+                constructor.addStatement("this.$N = $N", property.jsonFieldName(), property.jsonFieldName());
+            }
+        }
+        subclass.addMethod(constructor.addStatement("this.deferred = true").build());
+
+        for (Property property : properties) {
+            if (!property.lazy) {
+                continue;
+            }
+            subclass.addField(TokenBuffer.class, property.jsonFieldName(), Modifier.PRIVATE, Modifier.VOLATILE)
+                    .addField(property.type, property.valueFieldName(), Modifier.PRIVATE);
+            CodeBlock read = property.type instanceof ParameterizedTypeName
+                    ? CodeBlock.builder().add("parser.readValueAs(new $T<$T>() {})", TypeReference.class, property.type).build()
+                    : CodeBlock.builder().add("parser.readValueAs($T.class)", property.type).build();
+            MethodSpec.Builder accessor = MethodSpec.methodBuilder(property.methodName)
+                    .addAnnotation(Override.class)
+                    .returns(property.type);
+            for (Modifier modifier : property.element.getModifiers()) {
+                if (modifier != Modifier.ABSTRACT) {
+                    accessor.addModifiers(modifier);
+                }
+            }
+            for (AnnotationMirror annotation : property.annotations) {
+                if (annotation.getAnnotationType().asElement().getSimpleName().contentEquals("Nullable")) {
+                    accessor.addAnnotation(AnnotationSpec.get(annotation));
+                }
+            }
+            subclass.addMethod(accessor
+                    .beginControlFlow("if (!deferred)")
+                    .addStatement("return super.$N()", property.methodName)
+                    .endControlFlow()
+                    .beginControlFlow("if ($N != null)", property.jsonFieldName())
+                    .beginControlFlow("synchronized (this)")
+                    .addStatement("$T json = $N", TokenBuffer.class, property.jsonFieldName())
+                    .beginControlFlow("if (json != null)")
+                    .beginControlFlow("try")
+                    .addStatement("$T parser = json.asParser()", JsonParser.class)
+                    .addStatement("parser.nextToken()")
+                    .addStatement("$N = $L", property.valueFieldName(), read)
+                    .nextControlFlow("catch ($T e)", IOException.class)
+                    .addStatement("throw new $T($S, e)", IllegalStateException.class,
+                            "Unable to decode " + property.humanName)
+                    .endControlFlow()
+                    .addStatement("$N = null", property.jsonFieldName())
+                    .endControlFlow()
+                    .endControlFlow()
+                    .endControlFlow()
+                    .addStatement("return $N", property.valueFieldName())
+                    .build());
+        }
+        subclass.addMethod(generateEquals(context, properties))
+                .addMethod(generateHashCode(properties))
+                .addMethod(generateToString(context, properties));
+    }
+
+    private MethodSpec generateEquals(Context context, ImmutableList<Property> properties) {
+        TypeName valueType = ClassName.get(context.autoValueClass());
+        MethodSpec.Builder builder = MethodSpec.methodBuilder("equals")
+                .addAnnotation(Override.class)
+                .addModifiers(Modifier.PUBLIC)
+                .addParameter(Object.class, "o")
+                .returns(TypeName.BOOLEAN)
+                .beginControlFlow("if (o == this)")
+                .addStatement("return true")
+                .endControlFlow()
+                .beginControlFlow("if (!(o instanceof $T))", valueType)
+                .addStatement("return false")
+                .endControlFlow()
+                .addStatement("$T that = ($T) o", valueType, valueType);
+        CodeBlock.Builder comparison = CodeBlock.builder();
+        for (int i = 0; i < properties.size(); i++) {
+            Property property = properties.get(i);
+            String a = "this." + property.methodName + "()";
+            String b = "that." + property.methodName + "()";
+            comparison.add(i == 0 ? "" : "\n    && ");
+            if (property.type.equals(TypeName.FLOAT)) {
+                comparison.add("$T.floatToIntBits($L) == $T.floatToIntBits($L)", Float.class, a, Float.class, b);
+            } else if (property.type.equals(TypeName.DOUBLE)) {
+                comparison.add("$T.doubleToLongBits($L) == $T.doubleToLongBits($L)", Double.class, a, Double.class, b);
+            } else if (property.type.isPrimitive()) {
+                comparison.add("$L == $L", a, b);
+            } else if (property.type instanceof ArrayTypeName) {
+                comparison.add("$T.equals($L, $L)", Arrays.class, a, b);
+            } else {
+                comparison.add("($L == null ? $L == null : $L.equals($L))", a, b, a, b);
+            }
+        }
+        return builder.addStatement("return $L", properties.isEmpty() ? CodeBlock.builder().add("true").build()
+                : comparison.build()).build();
+    }
+
+    private MethodSpec generateHashCode(ImmutableList<Property> properties) {
+        MethodSpec.Builder builder = MethodSpec.methodBuilder("hashCode")
+                .addAnnotation(Override.class)
+                .addModifiers(Modifier.PUBLIC)
+                .returns(TypeName.INT)
+                .addStatement("int h = 1");
+        for (Property property : properties) {
+            String value = "this." + property.methodName + "()";
+            CodeBlock hash;
+            if (property.type.equals(TypeName.LONG)) {
+                hash = CodeBlock.builder().add("(int) (($L >>> 32) ^ $L)", value, value).build();
+            } else if (property.type.equals(TypeName.BOOLEAN)) {
+                hash = CodeBlock.builder().add("$L ? 1231 : 1237", value).build();
+            } else if (property.type.equals(TypeName.FLOAT)) {
+                hash = CodeBlock.builder().add("$T.floatToIntBits($L)", Float.class, value).build();
+            } else if (property.type.equals(TypeName.DOUBLE)) {
+                hash = CodeBlock.builder().add("(int) (($T.doubleToLongBits($L) >>> 32) ^ $T.doubleToLongBits($L))",
+                        Double.class, value, Double.class, value).build();
+            } else if (property.type.isPrimitive()) {
+                hash = CodeBlock.builder().add("$L", value).build();
+            } else if (property.type instanceof ArrayTypeName) {
+                hash = CodeBlock.builder().add("$T.hashCode($L)", Arrays.class, value).build();
+            } else {
+                hash = CodeBlock.builder().add("$L == null ? 0 : $L.hashCode()", value, value).build();
+            }
+            builder.addStatement("h *= 1000003")
+                    .addStatement("h ^= $L", hash);
+        }
+        return builder.addStatement("return h").build();
+    }
+
+    private MethodSpec generateToString(Context context, ImmutableList<Property> properties) {
+        CodeBlock.Builder format = CodeBlock.builder().add("$S", context.autoValueClass().getSimpleName() + "{");
+        for (int i = 0; i < properties.size(); i++) {
+            Property property = properties.get(i);
+            String value = "this." + property.methodName + "()";
+            format.add("\n    + $S + ", (i == 0 ? "" : ", ") + property.humanName + "=");
+            if (property.type instanceof ArrayTypeName) {
+                format.add("$T.toString($L)", Arrays.class, value);
+            } else {
+                format.add("$L", value);
+            }
+        }
+        format.add("\n    + $S", "}");
+        return MethodSpec.methodBuilder("toString")
+                .addAnnotation(Override.class)
+                .addModifiers(Modifier.PUBLIC)
+                .returns(String.class)
+                .addStatement("return $L", format.build())
+                .build();
+    }
+
+    private boolean hasAnnotation(Element element, String annotationName) {
+        for (AnnotationMirror annotationMirror : element.getAnnotationMirrors()) {
+            if (annotationMirror.getAnnotationType().asElement().getSimpleName().toString().equals(annotationName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private TypeName generateSuperType(Context context, String classToExtend, List<TypeVariableName> typeVariables) {
         ClassName superClass = ClassName.get(context.packageName(), classToExtend);
         TypeName superType;
@@ -97,20 +369,42 @@ public class AutoJacksonProcessor extends AutoValueExtension {
         return superType;
     }
 
+    /**
+     * Setters record which required properties (see {@link GeneratorUtils#isRequired}) Jackson has set in presence
+     * bits, so {@code build()} can fail with the names of the missing JSON fields after a single mask compare instead
+     * of handing AutoValue a null or quietly building a primitive default.
+     */
     private TypeSpec getBuilderTypeSpec(Context context, ClassName className, List<TypeVariableName> typeVariableNames) {
         TypeSpec.Builder builder = TypeSpec.classBuilder("Builder")
                 .addTypeVariables(typeVariableNames)
                 .addModifiers(Modifier.STATIC);
         ImmutableList<Property> properties = readProperties(context.properties());
+        AutoJackson options = context.autoValueClass().getAnnotation(AutoJackson.class);
+        boolean pooled = options != null && options.pooledBuilder();
         List<ParameterSpec> args = new ArrayList<>();
+        NameAllocator names = new NameAllocator();
+        Map<Integer, String> required = new LinkedHashMap<>();
+        for (int i = 0; i < properties.size(); i++) {
+            Property property = properties.get(i);
+            names.newName(property.humanName, property);
+            if (property.required) {
+                required.put(i, property.jsonName);
+            }
+        }
+        PresenceBits seen = required.isEmpty() ? null : new PresenceBits(names, properties.size());
 
         StringBuilder returnFormat = new StringBuilder();
-        for (Property property : properties) {
+        for (int i = 0; i < properties.size(); i++) {
+            Property property = properties.get(i);
             ParameterSpec spec = ParameterSpec.builder(property.type, property.humanName).build();
             args.add(spec);
             returnFormat.append("$N, ");
             builder.addField(FieldSpec.builder(property.type, property.humanName, Modifier.PRIVATE).build());
-            builder.addMethod(addBuilderMethod(property, typeVariableNames));
+            builder.addMethod(addBuilderMethod(property, typeVariableNames,
+                    seen != null && property.required ? seen.set(i) : null));
+        }
+        if (seen != null) {
+            seen.declareFields(builder);
         }
         String result = returnFormat.toString().substring(0, returnFormat.length() - 2);
 
@@ -123,15 +417,220 @@ public class AutoJacksonProcessor extends AutoValueExtension {
             returnType = returnClass;
         }
 
-        builder.addMethod(MethodSpec.methodBuilder("build")
-                .returns(returnType)
-                .addCode("return new $T(", className)
+        MethodSpec.Builder build = MethodSpec.methodBuilder("build")
+                .returns(returnType);
+        if (seen != null) {
+            String missing = names.newName("missing");
+            seen.addRequiredCheck(build, required, missing, CodeBlock.builder()
+                    .add("throw new $T($S + $N)", IllegalStateException.class,
+                            GeneratorUtils.MISSING_PROPERTIES_MESSAGE, missing)
+                    .build());
+        }
+        if (pooled) {
+            addPooling(builder, build, names, seen, className, returnType, properties, result, args);
+        } else {
+            builder.addMethod(build
+                    .addCode("return new $T(", className)
+                    .addCode(result + ");\n", args.toArray())
+                    .build());
+        }
+        return builder.build();
+    }
+
+    /**
+     * Builders handed to Jackson come from a per-thread free list and go back onto it once {@code build()} has
+     * created the value. A list rather than a single slot keeps nested values of the same type from sharing a
+     * Builder; it never grows past the deepest nesting seen on that thread.
+     */
+    private void addPooling(TypeSpec.Builder builder, MethodSpec.Builder build, NameAllocator names, PresenceBits seen,
+            ClassName className, TypeName returnType, ImmutableList<Property> properties, String result,
+            List<ParameterSpec> args) {
+        ClassName builderClass = className.nestedClass("Builder");
+        ClassName instantiatorClass = builderClass.nestedClass("Instantiator");
+        String pool = names.newName("POOL");
+        String next = names.newName("next");
+        String pooled = names.newName("pooled");
+        String value = names.newName("value");
+
+        builder.addAnnotation(AnnotationSpec.builder(JsonValueInstantiator.class)
+                .addMember("value", "$T.class", instantiatorClass)
+                .build())
+                .addField(FieldSpec.builder(ParameterizedTypeName.get(ClassName.get(ThreadLocal.class), builderClass),
+                        pool, Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                        .initializer("new $T<>()", ThreadLocal.class)
+                        .build())
+                .addField(builderClass, next, Modifier.PRIVATE)
+                .addField(TypeName.BOOLEAN, pooled, Modifier.PRIVATE);
+
+        builder.addMethod(build
+                .addCode("$T $N = new $T(", returnType, value, className)
                 .addCode(result + ");\n", args.toArray())
+                .beginControlFlow("if ($N)", pooled)
+                .addStatement("release()")
+                .endControlFlow()
+                .addStatement("return $N", value)
                 .build());
-        return builder.build();
+
+        MethodSpec.Builder reset = MethodSpec.methodBuilder("reset");
+        for (Property property : properties) {
+            reset.addStatement("this.$N = $L", property.humanName, GeneratorUtils.defaultValue(property.type));
+        }
+        if (seen != null) {
+            seen.clear(reset);
+        }
+        builder.addMethod(reset.build());
+
+        builder.addMethod(MethodSpec.methodBuilder("acquire")
+                .addModifiers(Modifier.STATIC)
+                .returns(builderClass)
+                .addStatement("$T builder = $N.get()", builderClass, pool)
+                .beginControlFlow("if (builder == null)")
+                .addStatement("builder = new $T()", builderClass)
+                .addStatement("builder.$N = true", pooled)
+                .addStatement("return builder")
+                .endControlFlow()
+                .addStatement("$N.set(builder.$N)", pool, next)
+                .addStatement("builder.$N = null", next)
+                .addStatement("return builder")
+                .build());
+
+        builder.addMethod(MethodSpec.methodBuilder("release")
+                .addModifiers(Modifier.PRIVATE)
+                .addStatement("reset()")
+                .addStatement("this.$N = $N.get()", next, pool)
+                .addStatement("$N.set(this)", pool)
+                .build());
+
+        builder.addType(TypeSpec.classBuilder("Instantiator")
+                .addModifiers(Modifier.STATIC, Modifier.FINAL)
+                .superclass(ValueInstantiator.class)
+                .addMethod(MethodSpec.methodBuilder("getValueTypeDesc")
+                        .addAnnotation(Override.class)
+                        .addModifiers(Modifier.PUBLIC)
+                        .returns(String.class)
+                        .addStatement("return $T.class.getName()", builderClass)
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("canCreateUsingDefault")
+                        .addAnnotation(Override.class)
+                        .addModifiers(Modifier.PUBLIC)
+                        .returns(TypeName.BOOLEAN)
+                        .addStatement("return true")
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("createUsingDefault")
+                        .addAnnotation(Override.class)
+                        .addModifiers(Modifier.PUBLIC)
+                        .addParameter(DeserializationContext.class, "context")
+                        .returns(Object.class)
+                        .addStatement("return acquire()")
+                        .build())
+                .build());
+    }
+
+    /**
+     * Opt-in with {@code @JsonSerialize(using = AutoValue_X.Serializer.class)}. Writes every property with its
+     * pre-encoded name and a typed generator call instead of going through Jackson's reflective BeanSerializer.
+     */
+    private TypeSpec getSerializerTypeSpec(Context context, ImmutableList<Property> properties) {
+        ClassName valueClass = ClassName.get(context.autoValueClass());
+        NameAllocator names = new NameAllocator();
+        String value = names.newName("value");
+        String generator = names.newName("generator");
+        String provider = names.newName("provider");
+        for (Property property : properties) {
+            names.newName(property.humanName, property);
+        }
+        String index = names.newName("i");
+        boolean metrics = GeneratorUtils.metricsEnabled(context.processingEnvironment());
+        String start = metrics ? names.newName("start") : null;
+
+        TypeSpec.Builder builder = TypeSpec.classBuilder("Serializer")
+                .addModifiers(Modifier.STATIC, Modifier.FINAL)
+                .superclass(ParameterizedTypeName.get(ClassName.get(JsonSerializer.class), valueClass));
+        MethodSpec.Builder serialize = MethodSpec.methodBuilder("serialize")
+                .addAnnotation(Override.class)
+                .addModifiers(Modifier.PUBLIC)
+                .addParameter(valueClass, value)
+                .addParameter(JsonGenerator.class, generator)
+                .addParameter(SerializerProvider.class, provider)
+                .addException(IOException.class);
+        if (metrics) {
+            builder.addField(GeneratorUtils.metricsField(valueClass));
+            serialize.addStatement("long $N = $T.nanoTime()", start, System.class);
+        }
+        serialize.addStatement("$N.writeStartObject()", generator);
+        for (Property property : properties) {
+            builder.addField(FieldSpec.builder(SerializedString.class, property.constantName(),
+                    Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                    .initializer("new $T($S)", SerializedString.class, property.jsonName)
+                    .build());
+            serialize.addStatement("$N.writeFieldName($N)", generator, property.constantName());
+            addWriteStatement(serialize, property, names.get(property), index, value, generator, provider);
+        }
+        serialize.addStatement("$N.writeEndObject()", generator);
+        if (metrics) {
+            serialize.addStatement("$N.recordWrite($T.nanoTime() - $N)", GeneratorUtils.METRICS_FIELD_NAME,
+                    System.class, start);
+        }
+        return builder.addMethod(serialize.build()).build();
     }
 
-    private MethodSpec addBuilderMethod(Property property, List<TypeVariableName> typeVariableNames) {
+    private void addWriteStatement(MethodSpec.Builder builder, Property property, String local, String index,
+            String value, String generator, String provider) {
+        TypeName type = property.type.withoutAnnotations();
+        if (isPrimitiveArray(type)) {
+            // JsonGenerator.writeArray(long[], ...) only exists from Jackson 2.8, so write the elements one by one
+            builder.addStatement("$T $N = $N.$N()", type, local, value, property.methodName)
+                    .beginControlFlow("if ($N == null)", local)
+                    .addStatement("$N.writeNull()", generator)
+                    .nextControlFlow("else")
+                    .addStatement("$N.writeStartArray($N.length)", generator, local)
+                    .beginControlFlow("for (int $N = 0; $N < $N.length; $N++)", index, index, local, index)
+                    .addStatement("$N.writeNumber($N[$N])", generator, local, index)
+                    .endControlFlow()
+                    .addStatement("$N.writeEndArray()", generator)
+                    .endControlFlow();
+            return;
+        }
+        if (type.isPrimitive() || type.equals(ClassName.get(String.class))) {
+            // JsonGenerator.writeString(null) already writes a JSON null
+            CodeBlock accessor = CodeBlock.builder().add("$N.$N()", value, property.methodName).build();
+            builder.addStatement("$N.$L", generator, getWriteCall(type, accessor));
+            return;
+        }
+        if (!type.isBoxedPrimitive()) {
+            builder.addStatement("$N.defaultSerializeValue($N.$N(), $N)", provider, value, property.methodName, generator);
+            return;
+        }
+        CodeBlock localValue = CodeBlock.builder().add("$N", local).build();
+        builder.addStatement("$T $N = $N.$N()", type, local, value, property.methodName)
+                .beginControlFlow("if ($N == null)", local)
+                .addStatement("$N.writeNull()", generator)
+                .nextControlFlow("else")
+                .addStatement("$N.$L", generator, getWriteCall(type.unbox(), localValue))
+                .endControlFlow();
+    }
+
+    private boolean isPrimitiveArray(TypeName type) {
+        if (!(type instanceof ArrayTypeName)) {
+            return false;
+        }
+        TypeName component = ((ArrayTypeName) type).componentType;
+        return component.equals(TypeName.INT) || component.equals(TypeName.LONG)
+                || component.equals(TypeName.DOUBLE) || component.equals(TypeName.FLOAT);
+    }
+
+    private CodeBlock getWriteCall(TypeName type, CodeBlock argument) {
+        if (type.equals(TypeName.BOOLEAN)) {
+            return CodeBlock.builder().add("writeBoolean($L)", argument).build();
+        } else if (type.equals(TypeName.CHAR)) {
+            return CodeBlock.builder().add("writeString($T.valueOf($L))", String.class, argument).build();
+        } else if (type.equals(ClassName.get(String.class))) {
+            return CodeBlock.builder().add("writeString($L)", argument).build();
+        }
+        return CodeBlock.builder().add("writeNumber($L)", argument).build();
+    }
+
+    private MethodSpec addBuilderMethod(Property property, List<TypeVariableName> typeVariableNames, CodeBlock mark) {
         MethodSpec.Builder builder = MethodSpec.methodBuilder(property.humanName)
                 .addParameter(property.type, property.humanName);
         boolean hasJsonPropertyAnnotation = false;
@@ -155,11 +654,18 @@ public class AutoJacksonProcessor extends AutoValueExtension {
             returnType = returns;
         }
         builder.returns(returnType)
-                .addCode("\nthis.$N = $N;\nreturn this;\n", property.humanName, property.humanName);
-        return builder.build();
+                .addCode("\nthis.$N = $N;\n", property.humanName, property.humanName);
+        if (mark != null && property.type.isPrimitive()) {
+            builder.addStatement("$L", mark);
+        } else if (mark != null) {
+            builder.beginControlFlow("if ($N != null)", property.humanName)
+                    .addStatement("$L", mark)
+                    .endControlFlow();
+        }
+        return builder.addCode("return this;\n").build();
     }
 
-    private MethodSpec generateConstructor(ImmutableList<Property> properties) {
+    private MethodSpec generateConstructor(ImmutableList<Property> properties, boolean deferred) {
         List<ParameterSpec> params = Lists.newArrayListWithCapacity(properties.size());
         for (Property property : properties) {
             ParameterSpec.Builder parameterBuilder = ParameterSpec.builder(property.type, property.humanName);
@@ -178,6 +684,9 @@ public class AutoJacksonProcessor extends AutoValueExtension {
         }
         superFormat.append(")");
         builder.addStatement(superFormat.toString(), args.toArray());
+        if (deferred) {
+            builder.addStatement("this.deferred = false");
+        }
 
         return builder.build();
     }
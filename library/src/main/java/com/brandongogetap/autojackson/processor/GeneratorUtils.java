@@ -0,0 +1,166 @@
+package com.brandongogetap.autojackson.processor;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.TypeName;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import java.util.Map;
+
+final class GeneratorUtils {
+
+    /**
+     * {@code -Aautojackson.metrics=true} makes generated deserializers and serializers record {@code TypeMetrics}.
+     */
+    static final String METRICS_OPTION = "autojackson.metrics";
+    static final String METRICS_FIELD_NAME = "METRICS";
+
+    private static final String RUNTIME_PACKAGE = "com.brandongogetap.autojackson.runtime";
+    static final ClassName AUTO_JACKSON_METRICS = ClassName.get(RUNTIME_PACKAGE, "AutoJacksonMetrics");
+    static final ClassName TYPE_METRICS = ClassName.get(RUNTIME_PACKAGE, "TypeMetrics");
+
+    /**
+     * What generated code fails with when required properties are missing, followed by their JSON names. It matches
+     * the message of AutoValue's own builders.
+     */
+    static final String MISSING_PROPERTIES_MESSAGE = "Missing required properties:";
+
+    /**
+     * The value a field or local of the given type holds before anything is assigned to it.
+     */
+    static String defaultValue(TypeName type) {
+        if (type.equals(TypeName.BOOLEAN)) {
+            return "false";
+        } else if (type.equals(TypeName.BYTE)) {
+            return "(byte) 0";
+        } else if (type.equals(TypeName.SHORT)) {
+            return "(short) 0";
+        } else if (type.equals(TypeName.CHAR)) {
+            return "'\\0'";
+        } else if (type.equals(TypeName.LONG)) {
+            return "0L";
+        } else if (type.equals(TypeName.FLOAT)) {
+            return "0F";
+        } else if (type.equals(TypeName.DOUBLE)) {
+            return "0D";
+        } else if (type.equals(TypeName.INT)) {
+            return "0";
+        }
+        return "null";
+    }
+
+    /**
+     * {@code fooBar} becomes {@code FOO_BAR}.
+     */
+    static String constantName(String humanName) {
+        StringBuilder builder = new StringBuilder();
+        for (char c : humanName.toCharArray()) {
+            if (Character.isUpperCase(c) && builder.length() > 0) {
+                builder.append('_');
+            }
+            builder.append(Character.toUpperCase(c));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Whether {@code element} carries an annotation with the given simple name that explicitly sets
+     * {@code memberName}, e.g. the {@code using} of {@code @JsonDeserialize}.
+     */
+    static boolean hasAnnotationMember(Element element, String annotationName, String memberName) {
+        for (AnnotationMirror annotationMirror : element.getAnnotationMirrors()) {
+            if (!annotationMirror.getAnnotationType().asElement().getSimpleName().toString().equals(annotationName)) {
+                continue;
+            }
+            for (ExecutableElement member : annotationMirror.getElementValues().keySet()) {
+                if (member.getSimpleName().contentEquals(memberName)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Whether the {@code using} of {@code element}'s annotation with the given simple name is {@code generated}. It only
+     * reads the annotation, which is kept in class files where {@code @AutoValue} is not: a type compiled earlier names
+     * the generated class resolved, and one compiled from source usually names it before it exists, so an unresolved
+     * {@code using} counts too. A hand-written {@code using} resolves to another class.
+     */
+    static boolean usesGeneratedClass(Element element, String annotationName, ClassName generated) {
+        for (AnnotationMirror annotationMirror : element.getAnnotationMirrors()) {
+            if (!annotationMirror.getAnnotationType().asElement().getSimpleName().toString().equals(annotationName)) {
+                continue;
+            }
+            for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry
+                    : annotationMirror.getElementValues().entrySet()) {
+                if (!entry.getKey().getSimpleName().contentEquals("using")) {
+                    continue;
+                }
+                Object value = entry.getValue().getValue();
+                if (!(value instanceof DeclaredType) || ((DeclaredType) value).getKind() != TypeKind.DECLARED) {
+                    return true;
+                }
+                return ((TypeElement) ((DeclaredType) value).asElement()).getQualifiedName()
+                        .contentEquals(generated.toString());
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Whether the JSON has to contain a non-null value for {@code property}: every reference that is not
+     * {@code @Nullable}, which AutoValue would reject anyway, and primitives marked
+     * {@code @JsonProperty(required = true)}, which would otherwise quietly keep their default.
+     */
+    static boolean isRequired(ExecutableElement property) {
+        for (AnnotationMirror annotationMirror : property.getAnnotationMirrors()) {
+            if (annotationMirror.getAnnotationType().asElement().getSimpleName().contentEquals("Nullable")) {
+                return false;
+            }
+        }
+        if (property.getReturnType().getKind().isPrimitive()) {
+            JsonProperty jsonProperty = property.getAnnotation(JsonProperty.class);
+            return jsonProperty != null && jsonProperty.required();
+        }
+        return true;
+    }
+
+    /**
+     * The simple name AutoValue gives the implementation of {@code element}: {@code Outer.Inner} becomes
+     * {@code AutoValue_Outer_Inner}.
+     */
+    static String autoValueClassName(Element element) {
+        String name = element.getSimpleName().toString();
+        for (Element enclosing = element.getEnclosingElement(); enclosing.getKind().isClass();
+                enclosing = enclosing.getEnclosingElement()) {
+            name = enclosing.getSimpleName() + "_" + name;
+        }
+        return "AutoValue_" + name;
+    }
+
+    static boolean metricsEnabled(ProcessingEnvironment processingEnv) {
+        return Boolean.parseBoolean(processingEnv.getOptions().get(METRICS_OPTION));
+    }
+
+    /**
+     * The {@code METRICS} constant generated code records into when metrics are enabled.
+     */
+    static FieldSpec metricsField(TypeName type) {
+        return FieldSpec.builder(TYPE_METRICS, METRICS_FIELD_NAME, Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                .initializer("$T.forType($T.class)", AUTO_JACKSON_METRICS, type)
+                .build();
+    }
+
+    private GeneratorUtils() {
+    }
+}
@@ -0,0 +1,102 @@
+package com.brandongogetap.autojackson.processor;
+
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.NameAllocator;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+
+import javax.lang.model.element.Modifier;
+import java.util.Map;
+
+/**
+ * One bit per property, kept in as few {@code long} locals (or Builder fields) as the property count allows, recording
+ * which properties generated code has read.
+ */
+final class PresenceBits {
+
+    private final String[] words;
+    private final int count;
+
+    PresenceBits(NameAllocator names, int count) {
+        this.count = count;
+        this.words = new String[Math.max(1, (count + 63) / 64)];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = names.newName(words.length == 1 ? "seen" : "seen" + i);
+        }
+    }
+
+    void declare(MethodSpec.Builder builder) {
+        for (String word : words) {
+            builder.addStatement("long $N = 0L", word);
+        }
+    }
+
+    void declareFields(TypeSpec.Builder builder) {
+        for (String word : words) {
+            builder.addField(TypeName.LONG, word, Modifier.PRIVATE);
+        }
+    }
+
+    void clear(MethodSpec.Builder builder) {
+        for (String word : words) {
+            builder.addStatement("this.$N = 0L", word);
+        }
+    }
+
+    /**
+     * The statement that marks property {@code index} as read.
+     */
+    CodeBlock set(int index) {
+        return CodeBlock.builder().add("$N |= $L", words[index / 64], mask(1L << (index % 64))).build();
+    }
+
+    /**
+     * A condition that holds once every property has been read.
+     */
+    CodeBlock allSet() {
+        CodeBlock.Builder builder = CodeBlock.builder();
+        for (int i = 0; i < words.length; i++) {
+            int bits = Math.min(64, count - i * 64);
+            long mask = bits == 64 ? -1L : (1L << bits) - 1;
+            builder.add(i == 0 ? "$N == $L" : " && $N == $L", words[i], mask(mask));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Fails with {@code failure} unless every property in {@code required} (indices to JSON names) has been read. The
+     * common case costs one mask compare per word; the names of the missing properties are only collected, into the
+     * {@code missing} local that {@code failure} can refer to, once the compare has failed.
+     */
+    void addRequiredCheck(MethodSpec.Builder builder, Map<Integer, String> required, String missing,
+            CodeBlock failure) {
+        long[] masks = new long[words.length];
+        for (int index : required.keySet()) {
+            masks[index / 64] |= 1L << (index % 64);
+        }
+        CodeBlock.Builder condition = CodeBlock.builder();
+        boolean first = true;
+        for (int i = 0; i < words.length; i++) {
+            if (masks[i] != 0) {
+                condition.add(first ? "($N & $L) != $L" : " || ($N & $L) != $L", words[i], mask(masks[i]),
+                        mask(masks[i]));
+                first = false;
+            }
+        }
+        builder.beginControlFlow("if ($L)", condition.build())
+                .addStatement("String $N = $S", missing, "");
+        for (Map.Entry<Integer, String> entry : required.entrySet()) {
+            int index = entry.getKey();
+            builder.beginControlFlow("if (($N & $L) == 0)", words[index / 64], mask(1L << (index % 64)))
+                    .addStatement("$N += $S", missing, " " + entry.getValue())
+                    .endControlFlow();
+        }
+        builder.addStatement("$L", failure)
+                .endControlFlow();
+    }
+
+    private static String mask(long mask) {
+        return "0x" + Long.toHexString(mask) + "L";
+    }
+}
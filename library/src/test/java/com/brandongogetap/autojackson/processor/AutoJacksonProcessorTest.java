@@ -69,6 +69,7 @@ public final class AutoJacksonProcessorTest {
                 "package com.example;",
                 "",
                 "import com.fasterxml.jackson.annotation.JsonProperty;",
+                "import java.lang.IllegalStateException;",
                 "import java.lang.String;",
                 "",
                 "final class AutoValue_Response extends $AutoValue_Response {",
@@ -79,6 +80,7 @@ public final class AutoJacksonProcessorTest {
                 "  static class Builder {",
                 "    private long id;",
                 "    private String name;",
+                "    private long seen;",
                 "    @JsonProperty(\"id\")",
                 "    Builder id(long id) {",
                 "      this.id = id;",
@@ -87,9 +89,19 @@ public final class AutoJacksonProcessorTest {
                 "    @JsonProperty(\"name\")",
                 "    Builder name(String name) {",
                 "      this.name = name;",
+                "      if (name != null) {",
+                "        seen |= 0x2L;",
+                "      }",
                 "      return this;",
                 "    }",
                 "    Response build() {",
+                "      if ((seen & 0x2L) != 0x2L) {",
+                "        String missing = \"\";",
+                "        if ((seen & 0x2L) == 0) {",
+                "          missing += \" name\";",
+                "        }",
+                "        throw new IllegalStateException(\"Missing required properties:\" + missing);",
+                "      }",
                 "      return new AutoValue_Response(id, name);",
                 "    }",
                 "  }",
@@ -148,6 +160,167 @@ public final class AutoJacksonProcessorTest {
                 .generatesSources(expectedSource);
     }
 
+    @Test
+    public void testSerializerGeneratedWhenRequested() {
+        JavaFileObject sampleActivity = JavaFileObjects.forSourceLines("com.example.Response",
+                "package com.example;",
+                "import com.fasterxml.jackson.annotation.JsonProperty;",
+                "import com.google.auto.value.AutoValue;",
+                "import com.fasterxml.jackson.databind.annotation.JsonSerialize;",
+                "import java.util.List;",
+                "@AutoValue @JsonSerialize(using = AutoValue_Response.Serializer.class) public abstract class Response {",
+                "  @JsonProperty(\"user_id\") public abstract long id();",
+                "  public abstract Integer count();",
+                "  public abstract String name();",
+                "  public abstract List<String> tags();",
+                "}"
+        );
+        JavaFileObject expectedSource = JavaFileObjects.forSourceLines("AutoValue_Response",
+                "package com.example;",
+                "",
+                "import com.fasterxml.jackson.core.JsonGenerator;",
+                "import com.fasterxml.jackson.core.io.SerializedString;",
+                "import com.fasterxml.jackson.databind.JsonSerializer;",
+                "import com.fasterxml.jackson.databind.SerializerProvider;",
+                "import java.io.IOException;",
+                "import java.lang.Integer;",
+                "import java.lang.Override;",
+                "import java.lang.String;",
+                "import java.util.List;",
+                "",
+                "final class AutoValue_Response extends $AutoValue_Response {",
+                "  AutoValue_Response(long id, Integer count, String name, List<String> tags) {",
+                "    super(id, count, name, tags);",
+                "  }",
+                "",
+                "  static final class Serializer extends JsonSerializer<Response> {",
+                "    private static final SerializedString ID = new SerializedString(\"user_id\");",
+                "    private static final SerializedString COUNT = new SerializedString(\"count\");",
+                "    private static final SerializedString NAME = new SerializedString(\"name\");",
+                "    private static final SerializedString TAGS = new SerializedString(\"tags\");",
+                "",
+                "    @Override",
+                "    public void serialize(Response value, JsonGenerator generator, SerializerProvider provider)",
+                "        throws IOException {",
+                "      generator.writeStartObject();",
+                "      generator.writeFieldName(ID);",
+                "      generator.writeNumber(value.id());",
+                "      generator.writeFieldName(COUNT);",
+                "      Integer count = value.count();",
+                "      if (count == null) {",
+                "        generator.writeNull();",
+                "      } else {",
+                "        generator.writeNumber(count);",
+                "      }",
+                "      generator.writeFieldName(NAME);",
+                "      generator.writeString(value.name());",
+                "      generator.writeFieldName(TAGS);",
+                "      provider.defaultSerializeValue(value.tags(), generator);",
+                "      generator.writeEndObject();",
+                "    }",
+                "  }",
+                "}"
+        );
+        assertAbout(javaSource())
+                .that(sampleActivity)
+                .processedWith(new AutoValueProcessor())
+                .compilesWithoutError()
+                .and()
+                .generatesSources(expectedSource);
+    }
+
+    @Test
+    public void testPooledBuilderGeneratedWhenRequested() {
+        JavaFileObject sampleActivity = JavaFileObjects.forSourceLines("com.example.Response",
+                "package com.example;",
+                "import com.brandongogetap.autojackson.AutoJackson;",
+                "import com.fasterxml.jackson.annotation.JsonProperty;",
+                "import com.google.auto.value.AutoValue;",
+                "import com.fasterxml.jackson.databind.annotation.JsonDeserialize;",
+                "@AutoValue @AutoJackson(pooledBuilder = true)",
+                "@JsonDeserialize(builder = AutoValue_Response.Builder.class) public abstract class Response {",
+                "  @JsonProperty(\"id\") public abstract long id();",
+                "}"
+        );
+        JavaFileObject expectedSource = JavaFileObjects.forSourceLines("AutoValue_Response",
+                "package com.example;",
+                "",
+                "import com.fasterxml.jackson.annotation.JsonProperty;",
+                "import com.fasterxml.jackson.databind.DeserializationContext;",
+                "import com.fasterxml.jackson.databind.annotation.JsonValueInstantiator;",
+                "import com.fasterxml.jackson.databind.deser.ValueInstantiator;",
+                "import java.lang.Object;",
+                "import java.lang.Override;",
+                "import java.lang.String;",
+                "import java.lang.ThreadLocal;",
+                "",
+                "final class AutoValue_Response extends $AutoValue_Response {",
+                "  AutoValue_Response(long id) {",
+                "    super(id);",
+                "  }",
+                "",
+                "  @JsonValueInstantiator(Builder.Instantiator.class)",
+                "  static class Builder {",
+                "    private static final ThreadLocal<Builder> POOL = new ThreadLocal<>();",
+                "    private long id;",
+                "    private Builder next;",
+                "    private boolean pooled;",
+                "    @JsonProperty(\"id\")",
+                "    Builder id(long id) {",
+                "      this.id = id;",
+                "      return this;",
+                "    }",
+                "    Response build() {",
+                "      Response value = new AutoValue_Response(id);",
+                "      if (pooled) {",
+                "        release();",
+                "      }",
+                "      return value;",
+                "    }",
+                "    void reset() {",
+                "      this.id = 0L;",
+                "    }",
+                "    static Builder acquire() {",
+                "      Builder builder = POOL.get();",
+                "      if (builder == null) {",
+                "        builder = new Builder();",
+                "        builder.pooled = true;",
+                "        return builder;",
+                "      }",
+                "      POOL.set(builder.next);",
+                "      builder.next = null;",
+                "      return builder;",
+                "    }",
+                "    private void release() {",
+                "      reset();",
+                "      this.next = POOL.get();",
+                "      POOL.set(this);",
+                "    }",
+                "    static final class Instantiator extends ValueInstantiator {",
+                "      @Override",
+                "      public String getValueTypeDesc() {",
+                "        return Builder.class.getName();",
+                "      }",
+                "      @Override",
+                "      public boolean canCreateUsingDefault() {",
+                "        return true;",
+                "      }",
+                "      @Override",
+                "      public Object createUsingDefault(DeserializationContext context) {",
+                "        return acquire();",
+                "      }",
+                "    }",
+                "  }",
+                "}"
+        );
+        assertAbout(javaSource())
+                .that(sampleActivity)
+                .processedWith(new AutoValueProcessor())
+                .compilesWithoutError()
+                .and()
+                .generatesSources(expectedSource);
+    }
+
     @Test
     public void testThatClassesWithTypeParametersAreRejected() {
         JavaFileObject sampleActivity = JavaFileObjects.forSourceLines("com.example.Response",
@@ -163,6 +336,44 @@ public final class AutoJacksonProcessorTest {
         assertAbout(javaSource())
                 .that(sampleActivity)
                 .processedWith(new AutoValueProcessor())
-                .failsToCompile();
+                .failsToCompile()
+                .withErrorContaining("Cannot create Builder on classes with type parameters: Response<T>");
+    }
+
+    @Test
+    public void testThatSerializersOfClassesWithTypeParametersAreRejected() {
+        JavaFileObject sampleActivity = JavaFileObjects.forSourceLines("com.example.Response",
+                "package com.example;",
+                "import com.google.auto.value.AutoValue;",
+                "import com.fasterxml.jackson.databind.annotation.JsonDeserialize;",
+                "import com.fasterxml.jackson.databind.annotation.JsonSerialize;",
+                "@AutoValue @JsonDeserialize(using = ResponseDeserializer.class)",
+                "@JsonSerialize(using = AutoValue_Response.Serializer.class) public abstract class Response<T> {",
+                "  public abstract T param();",
+                "}"
+        );
+        assertAbout(javaSource())
+                .that(sampleActivity)
+                .processedWith(new AutoValueProcessor(), new AutoJacksonDeserializer())
+                .failsToCompile()
+                .withErrorContaining("Cannot generate AutoValue_Response.Serializer on classes with type parameters");
+    }
+
+    @Test
+    public void testThatNonNullableLazyPropertiesAreRejected() {
+        JavaFileObject sampleActivity = JavaFileObjects.forSourceLines("com.example.Response",
+                "package com.example;",
+                "import com.brandongogetap.autojackson.LazyProperty;",
+                "import com.google.auto.value.AutoValue;",
+                "import com.fasterxml.jackson.databind.annotation.JsonDeserialize;",
+                "@AutoValue @JsonDeserialize(using = ResponseDeserializer.class) public abstract class Response {",
+                "  @LazyProperty public abstract String body();",
+                "}"
+        );
+        assertAbout(javaSource())
+                .that(sampleActivity)
+                .processedWith(new AutoValueProcessor(), new AutoJacksonDeserializer())
+                .failsToCompile()
+                .withErrorContaining("@LazyProperty properties must be @Nullable references");
     }
 }
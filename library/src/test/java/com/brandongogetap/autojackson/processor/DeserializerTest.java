@@ -2,15 +2,17 @@ package com.brandongogetap.autojackson.processor;
 
 import com.google.auto.value.processor.AutoValueProcessor;
 import com.google.testing.compile.JavaFileObjects;
-import org.junit.Ignore;
 import org.junit.Test;
 
 import javax.tools.JavaFileObject;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import static com.google.common.truth.Truth.assertAbout;
 import static com.google.testing.compile.JavaSourceSubjectFactory.javaSource;
+import static com.google.testing.compile.JavaSourcesSubjectFactory.javaSources;
 
-@Ignore("Work in progress")
 public final class DeserializerTest {
 
     @Test
@@ -27,12 +29,510 @@ public final class DeserializerTest {
         );
         JavaFileObject expectedSource = JavaFileObjects.forSourceLines("com.example.ResponseDeserializer",
                 "package com.example;",
-                "import com.fasterxml.jackson.annotation.JsonProperty;",
+                "",
+                "import com.fasterxml.jackson.core.JsonParser;",
+                "import com.fasterxml.jackson.core.JsonToken;",
+                "import com.fasterxml.jackson.core.io.SerializedString;",
+                "import com.fasterxml.jackson.databind.DeserializationContext;",
+                "import com.fasterxml.jackson.databind.JsonDeserializer;",
+                "import com.fasterxml.jackson.databind.JsonMappingException;",
+                "import com.fasterxml.jackson.databind.MappingIterator;",
+                "import com.fasterxml.jackson.databind.ObjectMapper;",
+                "import java.io.IOException;",
+                "import java.io.InputStream;",
+                "import java.lang.Long;",
+                "import java.lang.Override;",
+                "import java.lang.String;",
+                "",
+                "public final class ResponseDeserializer extends JsonDeserializer<Response> {",
+                "  private static final SerializedString ID_NAME = new SerializedString(\"id\");",
+                "",
+                "  private static final SerializedString NAME_NAME = new SerializedString(\"name\");",
+                "",
+                "  @Override",
+                "  public Response deserialize(JsonParser parser, DeserializationContext context) throws IOException {",
+                "    Long id = null;",
+                "    String name = null;",
+                "    long seen = 0L;",
+                "    JsonToken token = parser.getCurrentToken();",
+                "    if (token == null) {",
+                "      token = parser.nextToken();",
+                "    }",
+                "    if (token == JsonToken.START_OBJECT) {",
+                "      ordered: {",
+                "        if (!parser.nextFieldName(ID_NAME)) {",
+                "          break ordered;",
+                "        }",
+                "        token = parser.nextToken();",
+                "        if (token != JsonToken.VALUE_NULL) {",
+                "          id = token == JsonToken.VALUE_NUMBER_INT ? Long.valueOf(parser.getLongValue()) : context.readValue(parser, Long.class);",
+                "          seen |= 0x1L;",
+                "        }",
+                "        if (!parser.nextFieldName(NAME_NAME)) {",
+                "          break ordered;",
+                "        }",
+                "        token = parser.nextToken();",
+                "        if (token != JsonToken.VALUE_NULL) {",
+                "          name = token == JsonToken.VALUE_STRING ? parser.getText() : context.readValue(parser, String.class);",
+                "          seen |= 0x2L;",
+                "        }",
+                "        parser.nextToken();",
+                "      }",
+                "      token = parser.getCurrentToken();",
+                "    } else if (token == JsonToken.VALUE_NULL) {",
+                "      return null;",
+                "    } else if (token != JsonToken.FIELD_NAME && token != JsonToken.END_OBJECT) {",
+                "      throw context.mappingException(Response.class, token);",
+                "    }",
+                "    for (; token == JsonToken.FIELD_NAME; token = parser.nextToken()) {",
+                "      String fieldName = parser.getCurrentName();",
+                "      token = parser.nextToken();",
+                "      if (token == JsonToken.VALUE_NULL) {",
+                "        continue;",
+                "      }",
+                "      switch (fieldName) {",
+                "        case \"id\":",
+                "          id = token == JsonToken.VALUE_NUMBER_INT ? Long.valueOf(parser.getLongValue()) : context.readValue(parser, Long.class);",
+                "          seen |= 0x1L;",
+                "          break;",
+                "        case \"name\":",
+                "          name = token == JsonToken.VALUE_STRING ? parser.getText() : context.readValue(parser, String.class);",
+                "          seen |= 0x2L;",
+                "          break;",
+                "        default:",
+                "          parser.skipChildren();",
+                "      }",
+                "    }",
+                "    if ((seen & 0x3L) != 0x3L) {",
+                "      String missing = \"\";",
+                "      if ((seen & 0x1L) == 0) {",
+                "        missing += \" id\";",
+                "      }",
+                "      if ((seen & 0x2L) == 0) {",
+                "        missing += \" name\";",
+                "      }",
+                "      throw JsonMappingException.from(parser, \"Missing required properties:\" + missing);",
+                "    }",
+                "    return new AutoValue_Response(id, name);",
+                "  }",
+                "",
+                "  @Override",
+                "  public boolean isCachable() {",
+                "    return true;",
+                "  }",
+                "",
+                "  public static MappingIterator<Response> iterate(ObjectMapper mapper, JsonParser parser)",
+                "      throws IOException {",
+                "    if (parser.getCurrentToken() == null) {",
+                "      parser.nextToken();",
+                "    }",
+                "    if (parser.getCurrentToken() == JsonToken.START_ARRAY) {",
+                "      parser.clearCurrentToken();",
+                "    }",
+                "    return mapper.readerFor(Response.class).readValues(parser);",
+                "  }",
+                "",
+                "  public static MappingIterator<Response> iterate(ObjectMapper mapper, InputStream input)",
+                "      throws IOException {",
+                "    return mapper.readerFor(Response.class).readValues(input);",
+                "  }",
+                "}");
+
+        assertAbout(javaSource())
+                .that(sampleActivity)
+                .processedWith(new AutoValueProcessor(), new AutoJacksonDeserializer())
+                .compilesWithoutError()
+                .and()
+                .generatesSources(expectedSource);
+    }
+
+    @Test
+    public void testParameterizedPropertiesGetStaticJavaTypes() {
+        JavaFileObject sampleActivity = JavaFileObjects.forSourceLines("com.example.Response",
+                "package com.example;",
                 "import com.fasterxml.jackson.databind.annotation.JsonDeserialize;",
                 "import com.google.auto.value.AutoValue;",
-                "@AutoValue @JsonDeserialize(using = ResponseDeserializer.class) public class ResponseDeserializer {",
-                "  @JsonProperty(\"id\") public abstract Long id();",
-                "  @JsonProperty(\"name\") public abstract String name();",
+                "import java.util.List;",
+                "@AutoValue @JsonDeserialize(using = ResponseDeserializer.class) public abstract class Response {",
+                "  public abstract int count();",
+                "  public abstract List<String> tags();",
+                "}"
+        );
+        JavaFileObject expectedSource = JavaFileObjects.forSourceLines("com.example.ResponseDeserializer",
+                "package com.example;",
+                "",
+                "import com.fasterxml.jackson.core.JsonParser;",
+                "import com.fasterxml.jackson.core.JsonToken;",
+                "import com.fasterxml.jackson.core.io.SerializedString;",
+                "import com.fasterxml.jackson.core.type.TypeReference;",
+                "import com.fasterxml.jackson.databind.DeserializationContext;",
+                "import com.fasterxml.jackson.databind.JavaType;",
+                "import com.fasterxml.jackson.databind.JsonDeserializer;",
+                "import com.fasterxml.jackson.databind.JsonMappingException;",
+                "import com.fasterxml.jackson.databind.MappingIterator;",
+                "import com.fasterxml.jackson.databind.ObjectMapper;",
+                "import com.fasterxml.jackson.databind.type.TypeFactory;",
+                "import java.io.IOException;",
+                "import java.io.InputStream;",
+                "import java.lang.Override;",
+                "import java.lang.String;",
+                "import java.util.List;",
+                "",
+                "public final class ResponseDeserializer extends JsonDeserializer<Response> {",
+                "  private static final SerializedString COUNT_NAME = new SerializedString(\"count\");",
+                "",
+                "  private static final SerializedString TAGS_NAME = new SerializedString(\"tags\");",
+                "",
+                "  private static final JavaType TAGS_TYPE = TypeFactory.defaultInstance().constructType(",
+                "      new TypeReference<List<String>>() {});",
+                "",
+                "  @Override",
+                "  public Response deserialize(JsonParser parser, DeserializationContext context) throws IOException {",
+                "    int count = 0;",
+                "    List<String> tags = null;",
+                "    long seen = 0L;",
+                "    JsonToken token = parser.getCurrentToken();",
+                "    if (token == null) {",
+                "      token = parser.nextToken();",
+                "    }",
+                "    if (token == JsonToken.START_OBJECT) {",
+                "      ordered: {",
+                "        if (!parser.nextFieldName(COUNT_NAME)) {",
+                "          break ordered;",
+                "        }",
+                "        token = parser.nextToken();",
+                "        if (token != JsonToken.VALUE_NULL) {",
+                "          count = token == JsonToken.VALUE_NUMBER_INT ? parser.getIntValue() : context.readValue(parser, int.class);",
+                "        }",
+                "        if (!parser.nextFieldName(TAGS_NAME)) {",
+                "          break ordered;",
+                "        }",
+                "        token = parser.nextToken();",
+                "        if (token != JsonToken.VALUE_NULL) {",
+                "          tags = context.<List<String>>readValue(parser, TAGS_TYPE);",
+                "          seen |= 0x2L;",
+                "        }",
+                "        parser.nextToken();",
+                "      }",
+                "      token = parser.getCurrentToken();",
+                "    } else if (token == JsonToken.VALUE_NULL) {",
+                "      return null;",
+                "    } else if (token != JsonToken.FIELD_NAME && token != JsonToken.END_OBJECT) {",
+                "      throw context.mappingException(Response.class, token);",
+                "    }",
+                "    for (; token == JsonToken.FIELD_NAME; token = parser.nextToken()) {",
+                "      String fieldName = parser.getCurrentName();",
+                "      token = parser.nextToken();",
+                "      if (token == JsonToken.VALUE_NULL) {",
+                "        continue;",
+                "      }",
+                "      switch (fieldName) {",
+                "        case \"count\":",
+                "          count = token == JsonToken.VALUE_NUMBER_INT ? parser.getIntValue() : context.readValue(parser, int.class);",
+                "          break;",
+                "        case \"tags\":",
+                "          tags = context.<List<String>>readValue(parser, TAGS_TYPE);",
+                "          seen |= 0x2L;",
+                "          break;",
+                "        default:",
+                "          parser.skipChildren();",
+                "      }",
+                "    }",
+                "    if ((seen & 0x2L) != 0x2L) {",
+                "      String missing = \"\";",
+                "      if ((seen & 0x2L) == 0) {",
+                "        missing += \" tags\";",
+                "      }",
+                "      throw JsonMappingException.from(parser, \"Missing required properties:\" + missing);",
+                "    }",
+                "    return new AutoValue_Response(count, tags);",
+                "  }",
+                "",
+                "  @Override",
+                "  public boolean isCachable() {",
+                "    return true;",
+                "  }",
+                "",
+                "  public static MappingIterator<Response> iterate(ObjectMapper mapper, JsonParser parser)",
+                "      throws IOException {",
+                "    if (parser.getCurrentToken() == null) {",
+                "      parser.nextToken();",
+                "    }",
+                "    if (parser.getCurrentToken() == JsonToken.START_ARRAY) {",
+                "      parser.clearCurrentToken();",
+                "    }",
+                "    return mapper.readerFor(Response.class).readValues(parser);",
+                "  }",
+                "",
+                "  public static MappingIterator<Response> iterate(ObjectMapper mapper, InputStream input)",
+                "      throws IOException {",
+                "    return mapper.readerFor(Response.class).readValues(input);",
+                "  }",
+                "}");
+
+        assertAbout(javaSource())
+                .that(sampleActivity)
+                .processedWith(new AutoValueProcessor(), new AutoJacksonDeserializer())
+                .compilesWithoutError()
+                .and()
+                .generatesSources(expectedSource);
+    }
+
+    @Test
+    public void testNestedGeneratedDeserializersAreCalledDirectly() {
+        JavaFileObject child = JavaFileObjects.forSourceLines("com.example.Child",
+                "package com.example;",
+                "import com.fasterxml.jackson.databind.annotation.JsonDeserialize;",
+                "import com.google.auto.value.AutoValue;",
+                "@AutoValue @JsonDeserialize(using = ChildDeserializer.class) public abstract class Child {",
+                "  public abstract long id();",
+                "}"
+        );
+        JavaFileObject parent = JavaFileObjects.forSourceLines("com.example.Parent",
+                "package com.example;",
+                "import com.fasterxml.jackson.databind.annotation.JsonDeserialize;",
+                "import com.google.auto.value.AutoValue;",
+                "import java.util.List;",
+                "@AutoValue @JsonDeserialize(using = ParentDeserializer.class) public abstract class Parent {",
+                "  public abstract Child child();",
+                "  public abstract List<Child> children();",
+                "}"
+        );
+        JavaFileObject expectedSource = JavaFileObjects.forSourceLines("com.example.ParentDeserializer",
+                "package com.example;",
+                "",
+                "import com.fasterxml.jackson.core.JsonParser;",
+                "import com.fasterxml.jackson.core.JsonToken;",
+                "import com.fasterxml.jackson.core.io.SerializedString;",
+                "import com.fasterxml.jackson.core.type.TypeReference;",
+                "import com.fasterxml.jackson.databind.DeserializationContext;",
+                "import com.fasterxml.jackson.databind.JavaType;",
+                "import com.fasterxml.jackson.databind.JsonDeserializer;",
+                "import com.fasterxml.jackson.databind.JsonMappingException;",
+                "import com.fasterxml.jackson.databind.MappingIterator;",
+                "import com.fasterxml.jackson.databind.ObjectMapper;",
+                "import com.fasterxml.jackson.databind.type.TypeFactory;",
+                "import java.io.IOException;",
+                "import java.io.InputStream;",
+                "import java.lang.Override;",
+                "import java.util.ArrayList;",
+                "import java.util.List;",
+                "",
+                "public final class ParentDeserializer extends JsonDeserializer<Parent> {",
+                "  private static final SerializedString CHILD_NAME = new SerializedString(\"child\");",
+                "",
+                "  private static final SerializedString CHILDREN_NAME = new SerializedString(\"children\");",
+                "",
+                "  private static final ChildDeserializer CHILD_DESERIALIZER = new ChildDeserializer();",
+                "",
+                "  private static final JavaType CHILDREN_TYPE = TypeFactory.defaultInstance().constructType(",
+                "      new TypeReference<List<Child>>() {});",
+                "",
+                "  @Override",
+                "  public Parent deserialize(JsonParser parser, DeserializationContext context) throws IOException {",
+                "    Child child = null;",
+                "    List<Child> children = null;",
+                "    long seen = 0L;",
+                "    JsonToken token = parser.getCurrentToken();",
+                "    if (token == null) {",
+                "      token = parser.nextToken();",
+                "    }",
+                "    if (token == JsonToken.START_OBJECT) {",
+                "      ordered: {",
+                "        if (!parser.nextFieldName(CHILD_NAME)) {",
+                "          break ordered;",
+                "        }",
+                "        token = parser.nextToken();",
+                "        if (token != JsonToken.VALUE_NULL) {",
+                "          child = token == JsonToken.START_OBJECT ? CHILD_DESERIALIZER.deserialize(parser, context) : context.readValue(parser, Child.class);",
+                "          seen |= 0x1L;",
+                "        }",
+                "        if (!parser.nextFieldName(CHILDREN_NAME)) {",
+                "          break ordered;",
+                "        }",
+                "        token = parser.nextToken();",
+                "        if (token != JsonToken.VALUE_NULL) {",
+                "          children = readChildren(parser, context);",
+                "          seen |= 0x2L;",
+                "        }",
+                "        parser.nextToken();",
+                "      }",
+                "      token = parser.getCurrentToken();",
+                "    } else if (token == JsonToken.VALUE_NULL) {",
+                "      return null;",
+                "    } else if (token != JsonToken.FIELD_NAME && token != JsonToken.END_OBJECT) {",
+                "      throw context.mappingException(Parent.class, token);",
+                "    }",
+                "    for (; token == JsonToken.FIELD_NAME; token = parser.nextToken()) {",
+                "      String fieldName = parser.getCurrentName();",
+                "      token = parser.nextToken();",
+                "      if (token == JsonToken.VALUE_NULL) {",
+                "        continue;",
+                "      }",
+                "      switch (fieldName) {",
+                "        case \"child\":",
+                "          child = token == JsonToken.START_OBJECT ? CHILD_DESERIALIZER.deserialize(parser, context) : context.readValue(parser, Child.class);",
+                "          seen |= 0x1L;",
+                "          break;",
+                "        case \"children\":",
+                "          children = readChildren(parser, context);",
+                "          seen |= 0x2L;",
+                "          break;",
+                "        default:",
+                "          parser.skipChildren();",
+                "      }",
+                "    }",
+                "    if ((seen & 0x3L) != 0x3L) {",
+                "      String missing = \"\";",
+                "      if ((seen & 0x1L) == 0) {",
+                "        missing += \" child\";",
+                "      }",
+                "      if ((seen & 0x2L) == 0) {",
+                "        missing += \" children\";",
+                "      }",
+                "      throw JsonMappingException.from(parser, \"Missing required properties:\" + missing);",
+                "    }",
+                "    return new AutoValue_Parent(child, children);",
+                "  }",
+                "",
+                "  private static List<Child> readChildren(JsonParser parser, DeserializationContext context)",
+                "      throws IOException {",
+                "    if (parser.getCurrentToken() != JsonToken.START_ARRAY) {",
+                "      return context.<List<Child>>readValue(parser, CHILDREN_TYPE);",
+                "    }",
+                "    List<Child> values = new ArrayList<>();",
+                "    for (JsonToken token = parser.nextToken(); token != JsonToken.END_ARRAY; token = parser.nextToken()) {",
+                "      values.add(token == JsonToken.VALUE_NULL ? null : CHILD_DESERIALIZER.deserialize(parser, context));",
+                "    }",
+                "    return values;",
+                "  }",
+                "",
+                "  @Override",
+                "  public boolean isCachable() {",
+                "    return true;",
+                "  }",
+                "",
+                "  public static MappingIterator<Parent> iterate(ObjectMapper mapper, JsonParser parser)",
+                "      throws IOException {",
+                "    if (parser.getCurrentToken() == null) {",
+                "      parser.nextToken();",
+                "    }",
+                "    if (parser.getCurrentToken() == JsonToken.START_ARRAY) {",
+                "      parser.clearCurrentToken();",
+                "    }",
+                "    return mapper.readerFor(Parent.class).readValues(parser);",
+                "  }",
+                "",
+                "  public static MappingIterator<Parent> iterate(ObjectMapper mapper, InputStream input)",
+                "      throws IOException {",
+                "    return mapper.readerFor(Parent.class).readValues(input);",
+                "  }",
+                "}");
+
+        assertAbout(javaSources())
+                .that(Arrays.asList(child, parent))
+                .processedWith(new AutoValueProcessor(), new AutoJacksonDeserializer())
+                .compilesWithoutError()
+                .and()
+                .generatesSources(expectedSource);
+    }
+
+    @Test
+    public void testProjectionWithMoreThan64PropertiesCompiles() {
+        List<String> lines = new ArrayList<>(Arrays.asList(
+                "package com.example;",
+                "import com.brandongogetap.autojackson.AutoJackson;",
+                "import com.fasterxml.jackson.databind.annotation.JsonDeserialize;",
+                "import com.google.auto.value.AutoValue;",
+                "@AutoValue @AutoJackson(projection = true)",
+                "@JsonDeserialize(using = ResponseDeserializer.class) public abstract class Response {"));
+        for (int i = 0; i < 70; i++) {
+            lines.add("  public abstract int p" + i + "();");
+        }
+        lines.add("}");
+        JavaFileObject sampleActivity = JavaFileObjects.forSourceLines("com.example.Response", lines);
+        assertAbout(javaSource())
+                .that(sampleActivity)
+                .processedWith(new AutoValueProcessor(), new AutoJacksonDeserializer())
+                .compilesWithoutError();
+    }
+
+    @Test
+    public void testGenericClassesCompile() {
+        JavaFileObject sampleActivity = JavaFileObjects.forSourceLines("com.example.Page",
+                "package com.example;",
+                "import com.fasterxml.jackson.databind.annotation.JsonDeserialize;",
+                "import com.google.auto.value.AutoValue;",
+                "import java.util.List;",
+                "import java.util.Map;",
+                "@AutoValue @JsonDeserialize(using = PageDeserializer.class) public abstract class Page<T> {",
+                "  public abstract int total();",
+                "  public abstract T first();",
+                "  public abstract List<T> items();",
+                "  public abstract Map<String, List<T>> groups();",
+                "  public abstract Page<? extends T> next();",
+                "}"
+        );
+        assertAbout(javaSource())
+                .that(sampleActivity)
+                .processedWith(new AutoValueProcessor(), new AutoJacksonDeserializer())
+                .compilesWithoutError();
+    }
+
+    @Test
+    public void testCodecIsGeneratedWhenTheRuntimeIsAvailable() {
+        JavaFileObject sampleActivity = JavaFileObjects.forSourceLines("com.example.Response",
+                "package com.example;",
+                "import com.fasterxml.jackson.databind.annotation.JsonDeserialize;",
+                "import com.google.auto.value.AutoValue;",
+                "@AutoValue @JsonDeserialize(using = ResponseDeserializer.class) public abstract class Response {",
+                "  public abstract long id();",
+                "}"
+        );
+        JavaFileObject expectedSource = JavaFileObjects.forSourceLines("com.example.ResponseCodec",
+                "package com.example;",
+                "",
+                "import com.brandongogetap.autojackson.runtime.ByteBufferCodec;",
+                "import com.brandongogetap.autojackson.runtime.ChunkedJsonReader;",
+                "import com.fasterxml.jackson.databind.ObjectMapper;",
+                "import com.fasterxml.jackson.databind.ObjectReader;",
+                "import com.fasterxml.jackson.databind.ObjectWriter;",
+                "import java.io.IOException;",
+                "import java.nio.ByteBuffer;",
+                "",
+                "public final class ResponseCodec {",
+                "  private static final ObjectReader READER = ByteBufferCodec.defaultMapper().readerFor(Response.class);",
+                "",
+                "  private static final ObjectWriter WRITER = ByteBufferCodec.defaultMapper().writerFor(Response.class);",
+                "",
+                "  private ResponseCodec() {",
+                "  }",
+                "",
+                "  public static Response read(ByteBuffer buffer) throws IOException {",
+                "    return ByteBufferCodec.read(READER, buffer);",
+                "  }",
+                "",
+                "  public static Response read(ObjectMapper mapper, ByteBuffer buffer) throws IOException {",
+                "    return ByteBufferCodec.read(mapper.readerFor(Response.class), buffer);",
+                "  }",
+                "",
+                "  public static void write(Response value, ByteBuffer buffer) throws IOException {",
+                "    ByteBufferCodec.write(WRITER, value, buffer);",
+                "  }",
+                "",
+                "  public static void write(ObjectMapper mapper, Response value, ByteBuffer buffer) throws IOException {",
+                "    ByteBufferCodec.write(mapper.writerFor(Response.class), value, buffer);",
+                "  }",
+                "",
+                "  public static ChunkedJsonReader<Response> chunkedReader(",
+                "      ChunkedJsonReader.Listener<? super Response> listener) {",
+                "    return new ChunkedJsonReader<>(READER, listener);",
+                "  }",
+                "",
+                "  public static ChunkedJsonReader<Response> chunkedReader(ObjectMapper mapper,",
+                "      ChunkedJsonReader.Listener<? super Response> listener) {",
+                "    return new ChunkedJsonReader<>(mapper.readerFor(Response.class), listener);",
+                "  }",
                 "}");
 
         assertAbout(javaSource())
@@ -43,7 +543,132 @@ public final class DeserializerTest {
                 .generatesSources(expectedSource);
     }
 
-    @Test public void testJacksonDeserializesCorrectly() {
+    @Test
+    public void testThatBuilderClassesDoNotGetDeserializer() {
+        JavaFileObject sampleActivity = JavaFileObjects.forSourceLines("com.example.Response",
+                "package com.example;",
+                "import com.fasterxml.jackson.databind.annotation.JsonDeserialize;",
+                "import com.google.auto.value.AutoValue;",
+                "@AutoValue @JsonDeserialize(builder = AutoValue_Response.Builder.class) public abstract class Response {",
+                "  public abstract long id();",
+                "}"
+        );
+        assertAbout(javaSource())
+                .that(sampleActivity)
+                .processedWith(new AutoValueProcessor(), new AutoJacksonDeserializer())
+                .compilesWithoutError();
+    }
+
+    @Test
+    public void testThatDuplicateJsonNamesAreRejected() {
+        JavaFileObject sampleActivity = JavaFileObjects.forSourceLines("com.example.Response",
+                "package com.example;",
+                "import com.fasterxml.jackson.annotation.JsonProperty;",
+                "import com.fasterxml.jackson.databind.annotation.JsonDeserialize;",
+                "import com.google.auto.value.AutoValue;",
+                "@AutoValue @JsonDeserialize(using = ResponseDeserializer.class) public abstract class Response {",
+                "  @JsonProperty(\"id\") public abstract long id();",
+                "  @JsonProperty(\"id\") public abstract long otherId();",
+                "}"
+        );
+        assertAbout(javaSource())
+                .that(sampleActivity)
+                .processedWith(new AutoValueProcessor(), new AutoJacksonDeserializer())
+                .failsToCompile()
+                .withErrorContaining("Duplicate JSON property name \"id\"");
+    }
+
+    @Test
+    public void testThatInternOnNonStringPropertiesIsRejected() {
+        JavaFileObject sampleActivity = JavaFileObjects.forSourceLines("com.example.Response",
+                "package com.example;",
+                "import com.brandongogetap.autojackson.Intern;",
+                "import com.fasterxml.jackson.databind.annotation.JsonDeserialize;",
+                "import com.google.auto.value.AutoValue;",
+                "@AutoValue @JsonDeserialize(using = ResponseDeserializer.class) public abstract class Response {",
+                "  @Intern public abstract long id();",
+                "}"
+        );
+        assertAbout(javaSource())
+                .that(sampleActivity)
+                .processedWith(new AutoValueProcessor(), new AutoJacksonDeserializer())
+                .failsToCompile()
+                .withErrorContaining("@Intern property id on Response must be a String");
+    }
+
+    @Test
+    public void testThatInternedClassesWithLazyPropertiesAreRejected() {
+        JavaFileObject sampleActivity = JavaFileObjects.forSourceLines("com.example.Response",
+                "package com.example;",
+                "import com.brandongogetap.autojackson.Intern;",
+                "import com.brandongogetap.autojackson.LazyProperty;",
+                "import com.fasterxml.jackson.databind.annotation.JsonDeserialize;",
+                "import com.google.auto.value.AutoValue;",
+                "@AutoValue @Intern @JsonDeserialize(using = ResponseDeserializer.class) public abstract class Response {",
+                "  public abstract long id();",
+                "  @Nullable @LazyProperty public abstract String body();",
+                "}",
+                "@interface Nullable {}"
+        );
+        assertAbout(javaSource())
+                .that(sampleActivity)
+                .processedWith(new AutoValueProcessor(), new AutoJacksonDeserializer())
+                .failsToCompile()
+                .withErrorContaining("@Intern class Response cannot have @LazyProperty body");
+    }
+
+    @Test
+    public void testInternedGenericClassesCompile() {
+        JavaFileObject sampleActivity = JavaFileObjects.forSourceLines("com.example.Page",
+                "package com.example;",
+                "import com.brandongogetap.autojackson.Intern;",
+                "import com.fasterxml.jackson.databind.annotation.JsonDeserialize;",
+                "import com.google.auto.value.AutoValue;",
+                "@AutoValue @Intern(capacity = 32) @JsonDeserialize(using = PageDeserializer.class)",
+                "public abstract class Page<T> {",
+                "  public abstract T first();",
+                "}"
+        );
+        assertAbout(javaSource())
+                .that(sampleActivity)
+                .processedWith(new AutoValueProcessor(), new AutoJacksonDeserializer())
+                .compilesWithoutError();
+    }
 
+    @Test
+    public void testEnumConstantsWithCollidingHashesCompile() {
+        JavaFileObject sampleActivity = JavaFileObjects.forSourceLines("com.example.Response",
+                "package com.example;",
+                "import com.fasterxml.jackson.databind.annotation.JsonDeserialize;",
+                "import com.google.auto.value.AutoValue;",
+                "@AutoValue @JsonDeserialize(using = ResponseDeserializer.class) public abstract class Response {",
+                "  enum Code { Aa, BB }",
+                "  public abstract Code code();",
+                "  public abstract Code otherCode();",
+                "}"
+        );
+        assertAbout(javaSource())
+                .that(sampleActivity)
+                .processedWith(new AutoValueProcessor(), new AutoJacksonDeserializer())
+                .compilesWithoutError();
+    }
+
+    @Test
+    public void testThatMultipleUnknownEnumValuesAreRejected() {
+        JavaFileObject sampleActivity = JavaFileObjects.forSourceLines("com.example.Response",
+                "package com.example;",
+                "import com.brandongogetap.autojackson.UnknownEnumValue;",
+                "import com.fasterxml.jackson.databind.annotation.JsonDeserialize;",
+                "import com.google.auto.value.AutoValue;",
+                "@AutoValue @JsonDeserialize(using = ResponseDeserializer.class) public abstract class Response {",
+                "  enum Code { A, @UnknownEnumValue B, @UnknownEnumValue C }",
+                "  public abstract Code code();",
+                "}"
+        );
+        assertAbout(javaSource())
+                .that(sampleActivity)
+                .processedWith(new AutoValueProcessor(), new AutoJacksonDeserializer())
+                .failsToCompile()
+                .withErrorContaining("Code has more than one @UnknownEnumValue constant");
     }
 }
@@ -0,0 +1,135 @@
+package com.brandongogetap.autojackson.processor;
+
+import com.google.auto.value.processor.AutoValueProcessor;
+import com.google.testing.compile.JavaFileObjects;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.annotation.processing.Processor;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public final class IncrementalProcessingTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testProcessorsAreDeclaredToGradle() throws IOException {
+        Map<String, String> declared = new LinkedHashMap<>();
+        InputStream input = getClass().getClassLoader()
+                .getResourceAsStream("META-INF/gradle/incremental.annotation.processors");
+        assertNotNull(input);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, Charset.forName("UTF-8")))) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                String[] parts = line.split(",");
+                declared.put(parts[0], parts[1]);
+            }
+        }
+        assertEquals(2, declared.size());
+        assertEquals("isolating", declared.get(AutoJacksonDeserializer.class.getName()));
+        assertEquals("aggregating", declared.get(AutoJacksonModuleProcessor.class.getName()));
+    }
+
+    /**
+     * Gradle reprocesses the unchanged types of an aggregating processor from their class files, where
+     * {@code @AutoValue} is gone, so the module has to be built from what is left.
+     */
+    @Test
+    public void testModuleRegistersTypesLoadedFromClassFiles() throws IOException {
+        JavaFileObject response = JavaFileObjects.forSourceLines("com.example.Response",
+                "package com.example;",
+                "import com.fasterxml.jackson.databind.annotation.JsonDeserialize;",
+                "import com.fasterxml.jackson.databind.annotation.JsonSerialize;",
+                "import com.google.auto.value.AutoValue;",
+                "@AutoValue",
+                "@JsonDeserialize(using = ResponseDeserializer.class)",
+                "@JsonSerialize(using = AutoValue_Response.Serializer.class)",
+                "public abstract class Response {",
+                "  public abstract long id();",
+                "}"
+        );
+        File classes = folder.newFolder("classes");
+        File generated = folder.newFolder("generated");
+        String classPath = System.getProperty("java.class.path");
+        assertTrue(compile(Arrays.asList("-d", classes.getPath(), "-s", classes.getPath(), "-cp", classPath),
+                Collections.<String>emptyList(), Collections.singletonList(response),
+                new AutoValueProcessor(), new AutoJacksonDeserializer(), new AutoJacksonModuleProcessor()));
+
+        assertTrue(compile(Arrays.asList("-proc:only", "-s", generated.getPath(),
+                        "-cp", classes.getPath() + File.pathSeparator + classPath),
+                Collections.singletonList("com.example.Response"), Collections.<JavaFileObject>emptyList(),
+                new AutoJacksonModuleProcessor()));
+        String module = new String(Files.readAllBytes(new File(generated, "com/example/AutoJacksonModule.java").toPath()),
+                Charset.forName("UTF-8"));
+        assertTrue(module, module.contains("addDeserializer(Response.class, new ResponseDeserializer());"));
+        assertTrue(module, module.contains("addSerializer(Response.class, new AutoValue_Response.Serializer());"));
+    }
+
+    /**
+     * A nested type compiled earlier, or in another module, has lost {@code @AutoValue} too, and must still get the
+     * same direct call as one compiled from source.
+     */
+    @Test
+    public void testNestedTypesLoadedFromClassFilesAreCalledDirectly() throws IOException {
+        JavaFileObject child = JavaFileObjects.forSourceLines("com.example.Child",
+                "package com.example;",
+                "import com.fasterxml.jackson.databind.annotation.JsonDeserialize;",
+                "import com.google.auto.value.AutoValue;",
+                "@AutoValue @JsonDeserialize(using = ChildDeserializer.class) public abstract class Child {",
+                "  public abstract long id();",
+                "}"
+        );
+        JavaFileObject parent = JavaFileObjects.forSourceLines("com.example.Parent",
+                "package com.example;",
+                "import com.fasterxml.jackson.databind.annotation.JsonDeserialize;",
+                "import com.google.auto.value.AutoValue;",
+                "@AutoValue @JsonDeserialize(using = ParentDeserializer.class) public abstract class Parent {",
+                "  public abstract Child child();",
+                "}"
+        );
+        File classes = folder.newFolder("classes");
+        File generated = folder.newFolder("generated");
+        String classPath = System.getProperty("java.class.path");
+        assertTrue(compile(Arrays.asList("-d", classes.getPath(), "-s", classes.getPath(), "-cp", classPath),
+                Collections.<String>emptyList(), Collections.singletonList(child),
+                new AutoValueProcessor(), new AutoJacksonDeserializer()));
+
+        assertTrue(compile(Arrays.asList("-d", generated.getPath(), "-s", generated.getPath(),
+                        "-cp", classes.getPath() + File.pathSeparator + classPath),
+                Collections.<String>emptyList(), Collections.singletonList(parent),
+                new AutoValueProcessor(), new AutoJacksonDeserializer()));
+        String deserializer = new String(Files.readAllBytes(
+                new File(generated, "com/example/ParentDeserializer.java").toPath()), Charset.forName("UTF-8"));
+        assertTrue(deserializer, deserializer.contains("CHILD_DESERIALIZER.deserialize(parser, context)"));
+    }
+
+    private static boolean compile(List<String> options, List<String> classNames, List<JavaFileObject> sources,
+            Processor... processors) throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, null)) {
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, null, options, classNames, sources);
+            task.setProcessors(Arrays.asList(processors));
+            return task.call();
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.brandongogetap.autojackson.processor;
+
+import com.google.auto.value.processor.AutoValueProcessor;
+import com.google.common.collect.ImmutableMap;
+import com.google.testing.compile.JavaFileObjects;
+import org.junit.Test;
+
+import javax.annotation.processing.Completion;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.Processor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.tools.JavaFileObject;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.Set;
+
+import static com.google.common.truth.Truth.assertAbout;
+import static com.google.testing.compile.JavaSourceSubjectFactory.javaSource;
+
+public final class MetricsTest {
+
+    JavaFileObject response = JavaFileObjects.forSourceLines("com.example.Response",
+            "package com.example;",
+            "import com.fasterxml.jackson.databind.annotation.JsonDeserialize;",
+            "import com.fasterxml.jackson.databind.annotation.JsonSerialize;",
+            "import com.google.auto.value.AutoValue;",
+            "@AutoValue",
+            "@JsonDeserialize(using = ResponseDeserializer.class)",
+            "@JsonSerialize(using = AutoValue_Response.Serializer.class)",
+            "public abstract class Response {",
+            "  public abstract long id();",
+            "}"
+    );
+
+    @Test
+    public void testMetricsAreRecordedWhenEnabled() {
+        JavaFileObject expectedDeserializer = JavaFileObjects.forSourceLines("com.example.ResponseDeserializer",
+                "package com.example;",
+                "",
+                "import com.brandongogetap.autojackson.runtime.AutoJacksonMetrics;",
+                "import com.brandongogetap.autojackson.runtime.TypeMetrics;",
+                "import com.fasterxml.jackson.core.JsonParser;",
+                "import com.fasterxml.jackson.core.JsonToken;",
+                "import com.fasterxml.jackson.core.io.SerializedString;",
+                "import com.fasterxml.jackson.databind.DeserializationContext;",
+                "import com.fasterxml.jackson.databind.JsonDeserializer;",
+                "import com.fasterxml.jackson.databind.MappingIterator;",
+                "import com.fasterxml.jackson.databind.ObjectMapper;",
+                "import java.io.IOException;",
+                "import java.io.InputStream;",
+                "import java.lang.Override;",
+                "import java.lang.System;",
+                "",
+                "public final class ResponseDeserializer extends JsonDeserializer<Response> {",
+                "  private static final TypeMetrics METRICS = AutoJacksonMetrics.forType(Response.class);",
+                "",
+                "  private static final SerializedString ID_NAME = new SerializedString(\"id\");",
+                "",
+                "  @Override",
+                "  public Response deserialize(JsonParser parser, DeserializationContext context) throws IOException {",
+                "    long start = System.nanoTime();",
+                "    long startOffset = AutoJacksonMetrics.offset(parser.getTokenLocation());",
+                "    long id = 0L;",
+                "    JsonToken token = parser.getCurrentToken();",
+                "    if (token == null) {",
+                "      token = parser.nextToken();",
+                "    }",
+                "    if (token == JsonToken.START_OBJECT) {",
+                "      ordered: {",
+                "        if (!parser.nextFieldName(ID_NAME)) {",
+                "          break ordered;",
+                "        }",
+                "        token = parser.nextToken();",
+                "        if (token != JsonToken.VALUE_NULL) {",
+                "          id = token == JsonToken.VALUE_NUMBER_INT ? parser.getLongValue() : context.readValue(parser, long.class);",
+                "        }",
+                "        parser.nextToken();",
+                "      }",
+                "      token = parser.getCurrentToken();",
+                "    } else if (token == JsonToken.VALUE_NULL) {",
+                "      return null;",
+                "    } else if (token != JsonToken.FIELD_NAME && token != JsonToken.END_OBJECT) {",
+                "      throw context.mappingException(Response.class, token);",
+                "    }",
+                "    for (; token == JsonToken.FIELD_NAME; token = parser.nextToken()) {",
+                "      String fieldName = parser.getCurrentName();",
+                "      token = parser.nextToken();",
+                "      if (token == JsonToken.VALUE_NULL) {",
+                "        continue;",
+                "      }",
+                "      switch (fieldName) {",
+                "        case \"id\":",
+                "          id = token == JsonToken.VALUE_NUMBER_INT ? parser.getLongValue() : context.readValue(parser, long.class);",
+                "          break;",
+                "        default:",
+                "          METRICS.recordUnknownField();",
+                "          parser.skipChildren();",
+                "      }",
+                "    }",
+                "    Response value = new AutoValue_Response(id);",
+                "    METRICS.recordRead(AutoJacksonMetrics.offset(parser.getCurrentLocation()) - startOffset, System.nanoTime() - start);",
+                "    return value;",
+                "  }",
+                "",
+                "  @Override",
+                "  public boolean isCachable() {",
+                "    return true;",
+                "  }",
+                "",
+                "  public static MappingIterator<Response> iterate(ObjectMapper mapper, JsonParser parser)",
+                "      throws IOException {",
+                "    if (parser.getCurrentToken() == null) {",
+                "      parser.nextToken();",
+                "    }",
+                "    if (parser.getCurrentToken() == JsonToken.START_ARRAY) {",
+                "      parser.clearCurrentToken();",
+                "    }",
+                "    return mapper.readerFor(Response.class).readValues(parser);",
+                "  }",
+                "",
+                "  public static MappingIterator<Response> iterate(ObjectMapper mapper, InputStream input)",
+                "      throws IOException {",
+                "    return mapper.readerFor(Response.class).readValues(input);",
+                "  }",
+                "}");
+
+        assertAbout(javaSource())
+                .that(response)
+                .processedWith(withMetrics(new AutoValueProcessor()), withMetrics(new AutoJacksonDeserializer()))
+                .compilesWithoutError()
+                .and()
+                .generatesSources(expectedDeserializer);
+    }
+
+    @Test
+    public void testMetricsAreNotRecordedByDefault() {
+        assertAbout(javaSource())
+                .that(response)
+                .processedWith(new AutoValueProcessor(), new AutoJacksonDeserializer())
+                .compilesWithoutError();
+    }
+
+    /**
+     * compile-testing 0.6 cannot pass {@code -A} options, so the processor is handed an environment that reports the
+     * metrics option as set.
+     */
+    private static Processor withMetrics(final Processor processor) {
+        return new Processor() {
+            @Override
+            public Set<String> getSupportedOptions() {
+                return processor.getSupportedOptions();
+            }
+
+            @Override
+            public Set<String> getSupportedAnnotationTypes() {
+                return processor.getSupportedAnnotationTypes();
+            }
+
+            @Override
+            public SourceVersion getSupportedSourceVersion() {
+                return processor.getSupportedSourceVersion();
+            }
+
+            @Override
+            public void init(final ProcessingEnvironment processingEnv) {
+                final Map<String, String> options = ImmutableMap.<String, String>builder()
+                        .putAll(processingEnv.getOptions())
+                        .put(GeneratorUtils.METRICS_OPTION, "true")
+                        .build();
+                processor.init((ProcessingEnvironment) Proxy.newProxyInstance(getClass().getClassLoader(),
+                        new Class<?>[]{ProcessingEnvironment.class}, new InvocationHandler() {
+                            @Override
+                            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                                if (method.getName().equals("getOptions")) {
+                                    return options;
+                                }
+                                try {
+                                    return method.invoke(processingEnv, args);
+                                } catch (InvocationTargetException e) {
+                                    throw e.getCause();
+                                }
+                            }
+                        }));
+            }
+
+            @Override
+            public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+                return processor.process(annotations, roundEnv);
+            }
+
+            @Override
+            public Iterable<? extends Completion> getCompletions(Element element, AnnotationMirror annotation,
+                    ExecutableElement member, String userText) {
+                return processor.getCompletions(element, annotation, member, userText);
+            }
+        };
+    }
+}
@@ -0,0 +1,89 @@
+package com.brandongogetap.autojackson.processor;
+
+import com.google.auto.value.processor.AutoValueProcessor;
+import com.google.testing.compile.JavaFileObjects;
+import org.junit.Test;
+
+import javax.tools.JavaFileObject;
+import java.util.Arrays;
+
+import static com.google.common.truth.Truth.assertAbout;
+import static com.google.testing.compile.JavaSourcesSubjectFactory.javaSources;
+
+public final class ModuleTest {
+
+    @Test
+    public void testModuleRegistersGeneratedClassesOfPackage() {
+        JavaFileObject response = JavaFileObjects.forSourceLines("com.example.Response",
+                "package com.example;",
+                "import com.fasterxml.jackson.databind.annotation.JsonDeserialize;",
+                "import com.fasterxml.jackson.databind.annotation.JsonSerialize;",
+                "import com.google.auto.value.AutoValue;",
+                "@AutoValue",
+                "@JsonDeserialize(using = ResponseDeserializer.class)",
+                "@JsonSerialize(using = AutoValue_Response.Serializer.class)",
+                "public abstract class Response {",
+                "  public abstract long id();",
+                "}"
+        );
+        JavaFileObject outer = JavaFileObjects.forSourceLines("com.example.Outer",
+                "package com.example;",
+                "import com.fasterxml.jackson.databind.annotation.JsonDeserialize;",
+                "import com.fasterxml.jackson.databind.annotation.JsonSerialize;",
+                "import com.google.auto.value.AutoValue;",
+                "public class Outer {",
+                "  @AutoValue",
+                "  @JsonDeserialize(builder = AutoValue_Outer_Inner.Builder.class)",
+                "  @JsonSerialize(using = AutoValue_Outer_Inner.Serializer.class)",
+                "  public abstract static class Inner {",
+                "    public abstract String name();",
+                "  }",
+                "  @AutoValue",
+                "  @JsonDeserialize(builder = AutoValue_Outer_Plain.Builder.class)",
+                "  public abstract static class Plain {",
+                "    public abstract String name();",
+                "  }",
+                "}"
+        );
+        JavaFileObject legacy = JavaFileObjects.forSourceLines("com.example.Legacy",
+                "package com.example;",
+                "import com.fasterxml.jackson.core.JsonParser;",
+                "import com.fasterxml.jackson.databind.DeserializationContext;",
+                "import com.fasterxml.jackson.databind.JsonDeserializer;",
+                "import com.fasterxml.jackson.databind.annotation.JsonDeserialize;",
+                "@JsonDeserialize(using = Legacy.Reader.class)",
+                "public class Legacy {",
+                "  static final class Reader extends JsonDeserializer<Legacy> {",
+                "    @Override public Legacy deserialize(JsonParser parser, DeserializationContext context) {",
+                "      return new Legacy();",
+                "    }",
+                "  }",
+                "}"
+        );
+        JavaFileObject expectedSource = JavaFileObjects.forSourceLines("com.example.AutoJacksonModule",
+                "package com.example;",
+                "",
+                "import com.fasterxml.jackson.databind.module.SimpleModule;",
+                "",
+                "/**",
+                " * Registers the generated deserializers and serializers of this package.",
+                " */",
+                "public final class AutoJacksonModule extends SimpleModule {",
+                "  private static final long serialVersionUID = 1L;",
+                "",
+                "  public AutoJacksonModule() {",
+                "    super(\"com.example.AutoJacksonModule\");",
+                "    addDeserializer(Response.class, new ResponseDeserializer());",
+                "    addSerializer(Response.class, new AutoValue_Response.Serializer());",
+                "    addSerializer(Outer.Inner.class, new AutoValue_Outer_Inner.Serializer());",
+                "  }",
+                "}");
+
+        assertAbout(javaSources())
+                .that(Arrays.asList(response, outer, legacy))
+                .processedWith(new AutoValueProcessor(), new AutoJacksonDeserializer(), new AutoJacksonModuleProcessor())
+                .compilesWithoutError()
+                .and()
+                .generatesSources(expectedSource);
+    }
+}
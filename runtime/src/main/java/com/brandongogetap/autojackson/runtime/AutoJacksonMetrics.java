@@ -0,0 +1,67 @@
+package com.brandongogetap.autojackson.runtime;
+
+import com.fasterxml.jackson.core.JsonLocation;
+
+import java.util.Collections;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Registry of the {@link TypeMetrics} recorded by generated deserializers and serializers when the processor runs with
+ * {@code -Aautojackson.metrics=true}. Without that option the generated code never touches this class.
+ * <pre>{@code
+ * for (TypeMetrics metrics : AutoJacksonMetrics.types().values()) {
+ *     log(metrics.type(), metrics.reads(), metrics.readNanos());
+ * }
+ * }</pre>
+ */
+public final class AutoJacksonMetrics {
+
+    private static final ConcurrentMap<String, TypeMetrics> TYPES = new ConcurrentHashMap<>();
+
+    private AutoJacksonMetrics() {
+    }
+
+    /**
+     * Returns the metrics of {@code type}, creating them on first use. Generated code calls this once per class, from a
+     * static initializer.
+     */
+    public static TypeMetrics forType(Class<?> type) {
+        String name = type.getName();
+        TypeMetrics metrics = TYPES.get(name);
+        if (metrics == null) {
+            TypeMetrics created = new TypeMetrics(name);
+            metrics = TYPES.putIfAbsent(name, created);
+            if (metrics == null) {
+                metrics = created;
+            }
+        }
+        return metrics;
+    }
+
+    /**
+     * Every type recorded so far, by class name. The counters are live: read them to get current values.
+     */
+    public static SortedMap<String, TypeMetrics> types() {
+        return Collections.unmodifiableSortedMap(new TreeMap<>(TYPES));
+    }
+
+    /**
+     * Zeroes every counter. Updates racing with the reset may survive it.
+     */
+    public static void reset() {
+        for (TypeMetrics metrics : TYPES.values()) {
+            metrics.reset();
+        }
+    }
+
+    /**
+     * The input offset of {@code location}: its byte offset, or its character offset for character sources.
+     */
+    public static long offset(JsonLocation location) {
+        long byteOffset = location.getByteOffset();
+        return byteOffset >= 0 ? byteOffset : location.getCharOffset();
+    }
+}
@@ -0,0 +1,66 @@
+package com.brandongogetap.autojackson.runtime;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Reads values from and writes values to {@link ByteBuffer}s, heap or direct, without staging them in an intermediate
+ * {@code byte[]}. A heap buffer is parsed in place from its backing array; any other buffer is streamed to the parser,
+ * and output is flushed straight from the generator into the buffer.
+ * <p>
+ * Generated {@code XCodec} classes delegate here with a reader and writer bound to their type, so the mapper still
+ * dispatches to the generated deserializer and serializer:
+ * <pre>{@code
+ * Order order = OrderCodec.read(buffer);
+ * OrderCodec.write(order, buffer);
+ * }</pre>
+ */
+public final class ByteBufferCodec {
+
+    private static final ObjectMapper DEFAULT_MAPPER = new ObjectMapper();
+
+    private ByteBufferCodec() {
+    }
+
+    /**
+     * The mapper behind the codecs' {@code read(ByteBuffer)} and {@code write(X, ByteBuffer)} overloads. Codecs also
+     * take a mapper of their own for any other configuration.
+     */
+    public static ObjectMapper defaultMapper() {
+        return DEFAULT_MAPPER;
+    }
+
+    /**
+     * Reads the value held in the buffer's remaining bytes and moves its position to its limit. If reading fails the
+     * position is left where it was.
+     */
+    public static <T> T read(ObjectReader reader, ByteBuffer buffer) throws IOException {
+        T value;
+        if (buffer.hasArray()) {
+            value = reader.readValue(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+        } else {
+            value = reader.readValue(new ByteBufferInputStream(buffer.duplicate()));
+        }
+        buffer.position(buffer.limit());
+        return value;
+    }
+
+    /**
+     * Writes {@code value} at the buffer's position and moves the position past it. The buffer is never grown or
+     * replaced: if the value does not fit in the remaining bytes a {@link ByteBufferOverflowException} is thrown and
+     * the position is left where it was, while the bytes after it are unspecified.
+     */
+    public static void write(ObjectWriter writer, Object value, ByteBuffer buffer) throws IOException {
+        int start = buffer.position();
+        try {
+            writer.writeValue(new ByteBufferOutputStream(buffer), value);
+        } catch (IOException | RuntimeException e) {
+            buffer.position(start);
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.brandongogetap.autojackson.runtime;
+
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Writes into a {@link ByteBuffer} from its position, failing instead of growing once its limit is reached.
+ */
+final class ByteBufferOutputStream extends OutputStream {
+
+    private final ByteBuffer buffer;
+    private final int start;
+
+    ByteBufferOutputStream(ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.start = buffer.position();
+    }
+
+    @Override
+    public void write(int b) throws ByteBufferOverflowException {
+        if (!buffer.hasRemaining()) {
+            throw overflow(1);
+        }
+        buffer.put((byte) b);
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws ByteBufferOverflowException {
+        if (length > buffer.remaining()) {
+            throw overflow(length);
+        }
+        buffer.put(bytes, offset, length);
+    }
+
+    private ByteBufferOverflowException overflow(int length) {
+        return new ByteBufferOverflowException(buffer.limit() - start, buffer.position() - start + length);
+    }
+}
@@ -0,0 +1,34 @@
+package com.brandongogetap.autojackson.runtime;
+
+import java.io.IOException;
+
+/**
+ * Thrown by {@link ByteBufferCodec#write} when a value does not fit in the bytes remaining in the target buffer. It is
+ * an {@link IOException} so databind passes it through as is rather than wrapping it in a mapping exception.
+ */
+public final class ByteBufferOverflowException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int available;
+    private final int required;
+
+    ByteBufferOverflowException(int available, int required) {
+        super(String.format("Value needs at least %d bytes but only %d remain in the buffer", required, available));
+        this.available = available;
+        this.required = required;
+    }
+
+    /** The bytes that were remaining in the buffer when writing started. */
+    public int getAvailable() {
+        return available;
+    }
+
+    /**
+     * A lower bound on the bytes the value needs: what had been written when the buffer filled up, plus the chunk
+     * that did not fit.
+     */
+    public int getRequired() {
+        return required;
+    }
+}
@@ -0,0 +1,232 @@
+package com.brandongogetap.autojackson.runtime;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Reads a stream of JSON values that arrives in chunks of arbitrary size, such as reads from a non-blocking socket,
+ * without ever waiting for more input. Each chunk is scanned once for the boundaries of top-level values, tracking
+ * only nesting depth and whether it is inside a string; a value is handed to the reader, and so to the generated
+ * deserializer, only once all of its bytes are there. A value that lies within one chunk is parsed in place from that
+ * chunk, and only the bytes of a value split across chunks are copied into a pending buffer.
+ * <p>
+ * The input is either a sequence of root-level values (newline-delimited or not) or a top-level array, whose
+ * elements are delivered one by one. It must be UTF-8 JSON: the scanner looks for ASCII structural characters, which
+ * never occur inside multi-byte UTF-8 sequences. Malformed values are reported by the parser once they are complete.
+ * <p>
+ * The methods mirror a reactive-streams {@code Subscriber<ByteBuffer>} so the reader can be plugged into one with a
+ * thin adapter, and like a subscriber it must not be signalled from several threads at once:
+ * <pre>{@code
+ * ChunkedJsonReader<Order> orders = OrderCodec.chunkedReader(listener);
+ * // on the event loop, for each chunk read from the channel
+ * orders.onNext(chunk);
+ * // at end of input
+ * orders.onComplete();
+ * }</pre>
+ */
+public final class ChunkedJsonReader<T> {
+
+    /**
+     * Receives the values read, in input order, followed by exactly one of {@link #onError} or {@link #onComplete}.
+     */
+    public interface Listener<T> {
+
+        void onValue(T value);
+
+        void onError(Throwable error);
+
+        void onComplete();
+    }
+
+    private static final int UNKNOWN = 0;
+    private static final int VALUES = 1;
+    private static final int ARRAY = 2;
+
+    private final ObjectReader reader;
+    private final Listener<? super T> listener;
+
+    private byte[] pending = new byte[0];
+    private int pendingLength;
+    private int mode = UNKNOWN;
+    private int depth;
+    private boolean inValue;
+    private boolean inScalar;
+    private boolean inString;
+    private boolean escaped;
+    private boolean terminated;
+
+    public ChunkedJsonReader(ObjectReader reader, Listener<? super T> listener) {
+        this.reader = reader;
+        this.listener = listener;
+    }
+
+    /**
+     * Consumes the chunk from its position to its limit, delivering every value it completes before returning. The
+     * chunk is not referenced once this returns, so the caller may reuse it.
+     */
+    public void onNext(ByteBuffer chunk) {
+        if (terminated) {
+            throw new IllegalStateException("onNext after the input was completed or failed");
+        }
+        int limit = chunk.limit();
+        int start = chunk.position();
+        for (int i = chunk.position(); i < limit && !terminated; i++) {
+            byte b = chunk.get(i);
+            if (!inValue) {
+                if (isWhitespace(b)) {
+                    continue;
+                }
+                if (mode == UNKNOWN) {
+                    if (b == '[') {
+                        mode = ARRAY;
+                        depth = 1;
+                        continue;
+                    }
+                    mode = VALUES;
+                }
+                if (mode == ARRAY && b == ',') {
+                    continue;
+                }
+                if (mode == ARRAY && b == ']') {
+                    mode = UNKNOWN;
+                    depth = 0;
+                    continue;
+                }
+                inValue = true;
+                start = i;
+                if (b == '{' || b == '[') {
+                    depth++;
+                } else if (b == '"') {
+                    inString = true;
+                } else {
+                    inScalar = true;
+                }
+            } else if (inScalar) {
+                if (isWhitespace(b) || b == ',' || b == ']' || b == '}') {
+                    emit(chunk, start, i);
+                    // The delimiter belongs to whatever follows the scalar
+                    i--;
+                }
+            } else if (inString) {
+                if (escaped) {
+                    escaped = false;
+                } else if (b == '\\') {
+                    escaped = true;
+                } else if (b == '"') {
+                    inString = false;
+                    if (depth == baseDepth()) {
+                        emit(chunk, start, i + 1);
+                    }
+                }
+            } else if (b == '"') {
+                inString = true;
+            } else if (b == '{' || b == '[') {
+                depth++;
+            } else if ((b == '}' || b == ']') && --depth == baseDepth()) {
+                emit(chunk, start, i + 1);
+            }
+        }
+        if (inValue && !terminated) {
+            append(chunk, start, limit);
+        }
+        chunk.position(limit);
+    }
+
+    /**
+     * Signals the end of the input. A root-level number or literal is only known to be complete here; anything else
+     * still open is reported as an {@link EOFException}.
+     */
+    public void onComplete() {
+        if (terminated) {
+            return;
+        }
+        if (inScalar) {
+            deliver(takePending());
+            if (terminated) {
+                return;
+            }
+        }
+        if (inValue || mode == ARRAY) {
+            fail(new EOFException("Input ended inside " + (inValue ? "a value" : "the top-level array")));
+            return;
+        }
+        terminated = true;
+        listener.onComplete();
+    }
+
+    /**
+     * Passes an upstream failure on to the listener. Anything pending is dropped.
+     */
+    public void onError(Throwable error) {
+        if (!terminated) {
+            fail(error);
+        }
+    }
+
+    private int baseDepth() {
+        return mode == ARRAY ? 1 : 0;
+    }
+
+    /**
+     * Parses the value ending at {@code end}, either straight from the chunk or, if it began in an earlier one, from
+     * the pending bytes with the rest of it appended.
+     */
+    private void emit(ByteBuffer chunk, int start, int end) {
+        ByteBuffer value;
+        if (pendingLength > 0) {
+            append(chunk, start, end);
+            value = takePending();
+        } else {
+            value = chunk.duplicate();
+            value.limit(end);
+            value.position(start);
+        }
+        deliver(value);
+    }
+
+    private ByteBuffer takePending() {
+        ByteBuffer value = ByteBuffer.wrap(pending, 0, pendingLength);
+        pendingLength = 0;
+        return value;
+    }
+
+    private void deliver(ByteBuffer value) {
+        inValue = false;
+        inScalar = false;
+        T result;
+        try {
+            result = ByteBufferCodec.read(reader, value);
+        } catch (IOException e) {
+            fail(e);
+            return;
+        }
+        listener.onValue(result);
+    }
+
+    private void append(ByteBuffer chunk, int start, int end) {
+        int length = end - start;
+        if (pendingLength + length > pending.length) {
+            pending = Arrays.copyOf(pending, Math.max(pendingLength + length, pending.length * 2));
+        }
+        ByteBuffer source = chunk.duplicate();
+        source.limit(end);
+        source.position(start);
+        source.get(pending, pendingLength, length);
+        pendingLength += length;
+    }
+
+    private void fail(Throwable error) {
+        terminated = true;
+        pending = new byte[0];
+        pendingLength = 0;
+        listener.onError(error);
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\n' || b == '\r' || b == '\t';
+    }
+}
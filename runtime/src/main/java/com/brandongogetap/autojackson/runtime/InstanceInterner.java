@@ -0,0 +1,63 @@
+package com.brandongogetap.autojackson.runtime;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded, lock-free cache that maps values to one shared instance equal to them. Like {@link StringCanonicalizer}
+ * it is direct-mapped: each value hashes to a single slot, a hit returns the cached instance, and a miss caches the
+ * value it was given in place of whatever the slot held. Slots only hold their instance weakly, so caching a value
+ * never keeps it alive on its own, and {@code capacity} bounds how many distinct values are kept at once.
+ * <p>
+ * Generated deserializers of classes annotated with {@code @Intern} keep one and pass each value they build through
+ * it, so duplicates are dropped right away and retained memory follows the number of distinct values:
+ * <pre>{@code
+ * return INSTANCES.intern(new AutoValue_Currency(code, digits));
+ * }</pre>
+ * Values must be immutable and have value-based {@code equals} and {@code hashCode}, as AutoValue classes do.
+ */
+public final class InstanceInterner<T> {
+
+    private static final class Entry<T> extends WeakReference<T> {
+
+        final int hash;
+
+        Entry(T value, int hash) {
+            super(value);
+            this.hash = hash;
+        }
+    }
+
+    private final AtomicReferenceArray<Entry<T>> slots;
+    private final int mask;
+
+    public InstanceInterner(int capacity) {
+        int size = StringCanonicalizer.tableSize(capacity);
+        slots = new AtomicReferenceArray<>(size);
+        mask = size - 1;
+    }
+
+    /**
+     * Returns the cached instance equal to {@code value}, or caches {@code value} itself. Null is returned as is.
+     */
+    public T intern(T value) {
+        if (value == null) {
+            return null;
+        }
+        int hash = value.hashCode();
+        int index = (hash ^ (hash >>> 16)) & mask;
+        Entry<T> entry = slots.get(index);
+        if (entry != null && entry.hash == hash) {
+            T cached = entry.get();
+            if (cached != null && cached.equals(value)) {
+                return cached;
+            }
+        }
+        slots.lazySet(index, new Entry<>(value, hash));
+        return value;
+    }
+
+    int capacity() {
+        return slots.length();
+    }
+}
@@ -0,0 +1,180 @@
+package com.brandongogetap.autojackson.runtime;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Parses newline-delimited JSON files in parallel. The file is memory-mapped and split into line-aligned chunks, and
+ * each chunk is read on a {@link ForkJoinPool} worker with its own parser. Values are returned in file order.
+ * <p>
+ * Pass an {@link ObjectReader} for a class with a generated deserializer to keep per-line work on the generated code:
+ * <pre>{@code
+ * List<Response> responses = ParallelNdjsonReader.parseAll(mapper.readerFor(Response.class), path);
+ * }</pre>
+ */
+public final class ParallelNdjsonReader {
+
+    private static final int MIN_CHUNK_SIZE = 64 * 1024;
+    private static final int CHUNKS_PER_THREAD = 4;
+    private static final int SCAN_BUFFER_SIZE = 8 * 1024;
+
+    private static final class DefaultPool {
+        static final ForkJoinPool INSTANCE = new ForkJoinPool();
+    }
+
+    public static <T> List<T> parseAll(ObjectReader reader, Path path) throws IOException {
+        return parseAll(reader, path, DefaultPool.INSTANCE);
+    }
+
+    public static <T> List<T> parseAll(ObjectReader reader, Path path, ForkJoinPool pool) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long[] boundaries = chunkBoundaries(channel, pool.getParallelism() * CHUNKS_PER_THREAD);
+            List<ChunkTask<T>> tasks = new ArrayList<>(boundaries.length - 1);
+            for (int i = 0; i < boundaries.length - 1; i++) {
+                tasks.add(new ChunkTask<T>(reader, channel, boundaries[i], boundaries[i + 1]));
+            }
+            try {
+                return pool.invoke(new JoinTask<>(tasks));
+            } catch (ChunkException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * Splits the file into roughly {@code chunkCount} ranges, moving every split point forward to just past the next
+     * newline so no line is cut in two.
+     */
+    static long[] chunkBoundaries(FileChannel channel, int chunkCount) throws IOException {
+        long size = channel.size();
+        long chunkSize = Math.max(MIN_CHUNK_SIZE, (size + chunkCount - 1) / Math.max(1, chunkCount));
+        chunkSize = Math.min(chunkSize, Integer.MAX_VALUE);
+        List<Long> boundaries = new ArrayList<>();
+        boundaries.add(0L);
+        ByteBuffer scan = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+        long position = 0;
+        while (size - position > chunkSize) {
+            long next = nextLineStart(channel, position + chunkSize, size, scan);
+            if (next - position > Integer.MAX_VALUE) {
+                throw new IOException("Line starting before offset " + (position + chunkSize) + " is too long to map");
+            }
+            boundaries.add(next);
+            position = next;
+        }
+        if (position < size) {
+            boundaries.add(size);
+        }
+        long[] result = new long[boundaries.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = boundaries.get(i);
+        }
+        return result;
+    }
+
+    private static long nextLineStart(FileChannel channel, long from, long size, ByteBuffer scan) throws IOException {
+        long position = from;
+        while (position < size) {
+            scan.clear();
+            int read = channel.read(scan, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (scan.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    private static final class JoinTask<T> extends RecursiveTask<List<T>> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<ChunkTask<T>> tasks;
+
+        JoinTask(List<ChunkTask<T>> tasks) {
+            this.tasks = tasks;
+        }
+
+        @Override
+        protected List<T> compute() {
+            invokeAll(tasks);
+            int count = 0;
+            for (ChunkTask<T> task : tasks) {
+                count += task.join().size();
+            }
+            List<T> values = new ArrayList<>(count);
+            for (ChunkTask<T> task : tasks) {
+                values.addAll(task.join());
+            }
+            return values;
+        }
+    }
+
+    private static final class ChunkTask<T> extends RecursiveTask<List<T>> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final ObjectReader reader;
+        private final FileChannel channel;
+        private final long start;
+        private final long end;
+
+        ChunkTask(ObjectReader reader, FileChannel channel, long start, long end) {
+            this.reader = reader;
+            this.channel = channel;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected List<T> compute() {
+            try {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+                List<T> values = new ArrayList<>();
+                try (MappingIterator<T> iterator = reader.readValues(new ByteBufferInputStream(buffer))) {
+                    while (iterator.hasNextValue()) {
+                        values.add(iterator.nextValue());
+                    }
+                }
+                return values;
+            } catch (IOException e) {
+                throw new ChunkException(e);
+            }
+        }
+    }
+
+    /**
+     * Carries an {@link IOException} out of a chunk task so {@link #parseAll} can rethrow it unchanged.
+     */
+    private static final class ChunkException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        ChunkException(IOException cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized IOException getCause() {
+            return (IOException) super.getCause();
+        }
+    }
+
+    private ParallelNdjsonReader() {
+    }
+}
@@ -0,0 +1,109 @@
+package com.brandongogetap.autojackson.runtime;
+
+import com.fasterxml.jackson.core.JsonParser;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded, lock-free cache that maps character sequences to one shared {@link String} instance. It is direct-mapped:
+ * each sequence hashes to a single slot, a hit compares the cached value against the characters without allocating,
+ * and a miss creates the {@code String} and replaces whatever the slot held. Threads racing on a slot can only cost
+ * each other a hit.
+ * <p>
+ * Generated deserializers keep one per {@code @Intern} property and pass it the parser positioned on a string:
+ * <pre>{@code
+ * STATUS_STRINGS.canonicalize(parser)
+ * }</pre>
+ */
+public final class StringCanonicalizer {
+
+    private static final int MAX_CAPACITY = 1 << 16;
+
+    private final AtomicReferenceArray<String> slots;
+    private final int mask;
+
+    public StringCanonicalizer(int capacity) {
+        int size = tableSize(capacity);
+        slots = new AtomicReferenceArray<>(size);
+        mask = size - 1;
+    }
+
+    /**
+     * {@code capacity} rounded up to a power of two, at most {@value #MAX_CAPACITY}.
+     */
+    static int tableSize(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        int size = Integer.highestOneBit(Math.min(capacity, MAX_CAPACITY));
+        if (size < capacity && size < MAX_CAPACITY) {
+            size <<= 1;
+        }
+        return size;
+    }
+
+    /**
+     * Canonicalizes the text of the parser's current token. Text held in the parser's buffer is looked up without
+     * creating a {@code String}; text the parser already holds as a {@code String} (such as a Smile shared string
+     * back-reference) is looked up as is, instead of being copied into a buffer first.
+     */
+    public String canonicalize(JsonParser parser) throws IOException {
+        if (parser.hasTextCharacters()) {
+            return canonicalize(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+        }
+        return canonicalize(parser.getText());
+    }
+
+    public String canonicalize(char[] chars, int offset, int length) {
+        int hash = 0;
+        for (int i = offset, end = offset + length; i < end; i++) {
+            hash = 31 * hash + chars[i];
+        }
+        int index = index(hash);
+        String cached = slots.get(index);
+        if (cached != null && matches(cached, chars, offset, length)) {
+            return cached;
+        }
+        String value = new String(chars, offset, length);
+        slots.lazySet(index, value);
+        return value;
+    }
+
+    /**
+     * Returns the cached instance equal to {@code value}, or caches {@code value} itself.
+     */
+    public String canonicalize(String value) {
+        int index = index(value.hashCode());
+        String cached = slots.get(index);
+        if (value.equals(cached)) {
+            return cached;
+        }
+        slots.lazySet(index, value);
+        return value;
+    }
+
+    int capacity() {
+        return slots.length();
+    }
+
+    /**
+     * Spreads the {@link String#hashCode()}-compatible hash so values differing only in their last characters do not
+     * share a slot.
+     */
+    private int index(int hash) {
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    private static boolean matches(String cached, char[] chars, int offset, int length) {
+        if (cached.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (cached.charAt(i) != chars[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,43 @@
+package com.brandongogetap.autojackson.runtime;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A counter whose updates are spread over cache-line padded cells picked by thread, so threads parsing the same type
+ * rarely contend on one line. Reads sum every cell and are not atomic with respect to concurrent updates.
+ */
+final class StripedCounter {
+
+    /**
+     * Longs between two cells, so each cell sits on its own 64 byte cache line.
+     */
+    private static final int PADDING = 8;
+    private static final int STRIPES = stripes();
+
+    private final AtomicLongArray cells = new AtomicLongArray(STRIPES * PADDING);
+
+    void add(long value) {
+        int stripe = (int) Thread.currentThread().getId() & (STRIPES - 1);
+        cells.getAndAdd(stripe * PADDING, value);
+    }
+
+    long sum() {
+        long sum = 0;
+        for (int i = 0; i < STRIPES; i++) {
+            sum += cells.get(i * PADDING);
+        }
+        return sum;
+    }
+
+    void reset() {
+        for (int i = 0; i < STRIPES; i++) {
+            cells.set(i * PADDING, 0);
+        }
+    }
+
+    private static int stripes() {
+        int processors = Runtime.getRuntime().availableProcessors();
+        int stripes = Integer.highestOneBit(Math.max(1, Math.min(processors, 64)));
+        return stripes < processors ? stripes << 1 : stripes;
+    }
+}
@@ -0,0 +1,82 @@
+package com.brandongogetap.autojackson.runtime;
+
+/**
+ * Counters for one type, updated by the code generated with {@code -Aautojackson.metrics=true}. Read timings include
+ * the values nested in the type, so the nested types' time is counted for both.
+ */
+public final class TypeMetrics {
+
+    private final String type;
+    private final StripedCounter reads = new StripedCounter();
+    private final StripedCounter bytesRead = new StripedCounter();
+    private final StripedCounter readNanos = new StripedCounter();
+    private final StripedCounter unknownFields = new StripedCounter();
+    private final StripedCounter writes = new StripedCounter();
+    private final StripedCounter writeNanos = new StripedCounter();
+
+    TypeMetrics(String type) {
+        this.type = type;
+    }
+
+    /**
+     * Records one value read from {@code bytes} bytes (or characters, for character sources) of input. Negative sizes,
+     * from sources that do not track offsets, are counted as 0.
+     */
+    public void recordRead(long bytes, long nanos) {
+        reads.add(1);
+        bytesRead.add(Math.max(0, bytes));
+        readNanos.add(nanos);
+    }
+
+    public void recordUnknownField() {
+        unknownFields.add(1);
+    }
+
+    public void recordWrite(long nanos) {
+        writes.add(1);
+        writeNanos.add(nanos);
+    }
+
+    public String type() {
+        return type;
+    }
+
+    public long reads() {
+        return reads.sum();
+    }
+
+    public long bytesRead() {
+        return bytesRead.sum();
+    }
+
+    public long readNanos() {
+        return readNanos.sum();
+    }
+
+    public long unknownFields() {
+        return unknownFields.sum();
+    }
+
+    public long writes() {
+        return writes.sum();
+    }
+
+    public long writeNanos() {
+        return writeNanos.sum();
+    }
+
+    void reset() {
+        reads.reset();
+        bytesRead.reset();
+        readNanos.reset();
+        unknownFields.reset();
+        writes.reset();
+        writeNanos.reset();
+    }
+
+    @Override
+    public String toString() {
+        return type + "{reads=" + reads() + ", bytesRead=" + bytesRead() + ", readNanos=" + readNanos()
+                + ", unknownFields=" + unknownFields() + ", writes=" + writes() + ", writeNanos=" + writeNanos() + "}";
+    }
+}
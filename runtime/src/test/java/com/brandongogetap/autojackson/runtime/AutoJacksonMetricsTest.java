@@ -0,0 +1,88 @@
+package com.brandongogetap.autojackson.runtime;
+
+import com.fasterxml.jackson.core.JsonLocation;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public final class AutoJacksonMetricsTest {
+
+    static final class Recorded {
+    }
+
+    static final class Concurrent {
+    }
+
+    @Test
+    public void testMetricsAreRegisteredOncePerType() {
+        TypeMetrics metrics = AutoJacksonMetrics.forType(Recorded.class);
+        assertSame(metrics, AutoJacksonMetrics.forType(Recorded.class));
+        assertSame(metrics, AutoJacksonMetrics.types().get(Recorded.class.getName()));
+        assertEquals(Recorded.class.getName(), metrics.type());
+    }
+
+    @Test
+    public void testRecordedValuesAreSummedAndReset() {
+        TypeMetrics metrics = AutoJacksonMetrics.forType(Recorded.class);
+        AutoJacksonMetrics.reset();
+        metrics.recordRead(100, 2000);
+        metrics.recordRead(-1, 1000);
+        metrics.recordUnknownField();
+        metrics.recordWrite(500);
+        assertEquals(2, metrics.reads());
+        assertEquals(100, metrics.bytesRead());
+        assertEquals(3000, metrics.readNanos());
+        assertEquals(1, metrics.unknownFields());
+        assertEquals(1, metrics.writes());
+        assertEquals(500, metrics.writeNanos());
+
+        AutoJacksonMetrics.reset();
+        assertEquals(0, metrics.reads());
+        assertEquals(0, metrics.writeNanos());
+    }
+
+    @Test
+    public void testConcurrentUpdatesAreNotLost() throws Exception {
+        final TypeMetrics metrics = AutoJacksonMetrics.forType(Concurrent.class);
+        int threads = 8;
+        final int reads = 100000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() {
+                        for (int j = 0; j < reads; j++) {
+                            metrics.recordRead(3, 1);
+                        }
+                        return null;
+                    }
+                }));
+            }
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(threads * reads, metrics.reads());
+        assertEquals(threads * reads * 3L, metrics.bytesRead());
+    }
+
+    @Test
+    public void testOffsetFallsBackToCharacters() {
+        assertEquals(10, AutoJacksonMetrics.offset(new JsonLocation(null, 10, 20, 1, 1)));
+        assertEquals(20, AutoJacksonMetrics.offset(new JsonLocation(null, -1, 20, 1, 1)));
+        assertTrue(AutoJacksonMetrics.offset(JsonLocation.NA) < 0);
+    }
+}
@@ -0,0 +1,64 @@
+package com.brandongogetap.autojackson.runtime;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public final class ByteBufferCodecTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    public void testHeapBuffersAreReadFromTheirPositionInTheBackingArray() throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap("xx[1,2,3]yy".getBytes(StandardCharsets.UTF_8), 2, 7);
+        List<Integer> values = ByteBufferCodec.read(mapper.readerFor(List.class), buffer);
+        assertEquals(Arrays.asList(1, 2, 3), values);
+        assertEquals(9, buffer.position());
+    }
+
+    @Test
+    public void testFailedReadsLeaveThePositionAlone() {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(8);
+        buffer.put("[1,".getBytes(StandardCharsets.UTF_8)).flip();
+        try {
+            ByteBufferCodec.read(mapper.readerFor(List.class), buffer);
+            fail();
+        } catch (IOException expected) {
+        }
+        assertEquals(0, buffer.position());
+    }
+
+    @Test
+    public void testWritesFillTheBufferExactly() throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(7);
+        ByteBufferCodec.write(mapper.writer(), Arrays.asList(1, 2, 3), buffer);
+        assertEquals(7, buffer.position());
+        assertEquals("[1,2,3]", new String(buffer.array(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testOverflowIsReportedInsteadOfGrowingTheBuffer() {
+        ByteBuffer buffer = ByteBuffer.allocate(6);
+        try {
+            ByteBufferCodec.write(mapper.writer(), Arrays.asList(1, 2, 3), buffer);
+            fail();
+        } catch (ByteBufferOverflowException e) {
+            assertEquals(6, e.getAvailable());
+            assertEquals(7, e.getRequired());
+            assertTrue(e.getMessage().contains("only 6 remain"));
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+        assertEquals(0, buffer.position());
+        assertEquals(6, buffer.capacity());
+    }
+}
@@ -0,0 +1,146 @@
+package com.brandongogetap.autojackson.runtime;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.junit.Test;
+
+import java.io.EOFException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public final class ChunkedJsonReaderTest {
+
+    private final ObjectReader reader = new ObjectMapper().readerFor(Object.class);
+
+    @Test
+    public void testValuesSplitAtEveryByteAreReadWhole() {
+        String json = "{\"a\":\"}{\\\"]\",\"b\":[1,{\"c\":null}]}\n{\"d\":\"é€\"} [2,3] \"s\\\\\" 4.5 true";
+        List<Object> expected = Arrays.<Object>asList(
+                map("a", "}{\"]", "b", Arrays.asList(1, map("c", null))), map("d", "é€"),
+                Arrays.asList(2, 3), "s\\", 4.5, true);
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        for (int size = 1; size <= bytes.length; size++) {
+            Recorder recorder = new Recorder();
+            ChunkedJsonReader<Object> chunked = new ChunkedJsonReader<>(reader, recorder);
+            for (int i = 0; i < bytes.length; i += size) {
+                chunked.onNext(ByteBuffer.wrap(bytes, i, Math.min(size, bytes.length - i)));
+            }
+            chunked.onComplete();
+            assertEquals("chunk size " + size, expected, recorder.values);
+            assertTrue(recorder.completed);
+        }
+    }
+
+    @Test
+    public void testTopLevelArrayElementsAreDeliveredOneByOne() {
+        Recorder recorder = new Recorder();
+        ChunkedJsonReader<Object> chunked = new ChunkedJsonReader<>(reader, recorder);
+        chunked.onNext(direct("[{\"id\":1}, nu"));
+        assertEquals(Collections.<Object>singletonList(map("id", 1)), recorder.values);
+        chunked.onNext(direct("ll ,{\"id\":2}]"));
+        chunked.onComplete();
+        assertEquals(Arrays.<Object>asList(map("id", 1), null, map("id", 2)), recorder.values);
+        assertTrue(recorder.completed);
+    }
+
+    @Test
+    public void testChunksAreConsumedAndCanBeReused() {
+        Recorder recorder = new Recorder();
+        ChunkedJsonReader<Object> chunked = new ChunkedJsonReader<>(reader, recorder);
+        ByteBuffer chunk = ByteBuffer.allocate(8);
+        chunk.put("{\"a\":".getBytes(StandardCharsets.UTF_8)).flip();
+        chunked.onNext(chunk);
+        assertEquals(chunk.limit(), chunk.position());
+        chunk.clear();
+        chunk.put("7}".getBytes(StandardCharsets.UTF_8)).flip();
+        chunked.onNext(chunk);
+        assertEquals(Collections.<Object>singletonList(map("a", 7)), recorder.values);
+    }
+
+    @Test
+    public void testInputEndingInsideAValueFails() {
+        Recorder recorder = new Recorder();
+        ChunkedJsonReader<Object> chunked = new ChunkedJsonReader<>(reader, recorder);
+        chunked.onNext(direct("{\"a\":1} {\"b\":"));
+        chunked.onComplete();
+        assertEquals(1, recorder.values.size());
+        assertTrue(recorder.error instanceof EOFException);
+        assertFalse(recorder.completed);
+    }
+
+    @Test
+    public void testMalformedValuesFailTheReader() {
+        Recorder recorder = new Recorder();
+        ChunkedJsonReader<Object> chunked = new ChunkedJsonReader<>(reader, recorder);
+        chunked.onNext(direct("{\"a\":1}{\"b\" 2}{\"c\":3}"));
+        assertEquals(1, recorder.values.size());
+        assertTrue(recorder.error instanceof JsonParseException);
+        try {
+            chunked.onNext(direct("{}"));
+            fail();
+        } catch (IllegalStateException expected) {
+        }
+        chunked.onComplete();
+        assertFalse(recorder.completed);
+    }
+
+    @Test
+    public void testUpstreamErrorsArePassedOn() {
+        Recorder recorder = new Recorder();
+        ChunkedJsonReader<Object> chunked = new ChunkedJsonReader<>(reader, recorder);
+        IllegalArgumentException error = new IllegalArgumentException();
+        chunked.onNext(direct("{\"a\""));
+        chunked.onError(error);
+        assertEquals(error, recorder.error);
+        assertTrue(recorder.values.isEmpty());
+    }
+
+    private static ByteBuffer direct(String json) {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+        buffer.put(bytes).flip();
+        return buffer;
+    }
+
+    private static Map<String, Object> map(Object... entries) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        for (int i = 0; i < entries.length; i += 2) {
+            map.put((String) entries[i], entries[i + 1]);
+        }
+        return map;
+    }
+
+    private static final class Recorder implements ChunkedJsonReader.Listener<Object> {
+
+        final List<Object> values = new ArrayList<>();
+        Throwable error;
+        boolean completed;
+
+        @Override
+        public void onValue(Object value) {
+            values.add(value);
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            this.error = error;
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.brandongogetap.autojackson.runtime;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public final class InstanceInternerTest {
+
+    @Test
+    public void testEqualValuesShareTheFirstInstance() {
+        InstanceInterner<List<String>> interner = new InstanceInterner<>(16);
+        List<String> first = Arrays.asList("EUR", "2");
+        assertSame(first, interner.intern(first));
+        assertSame(first, interner.intern(Arrays.asList("EUR", "2")));
+        List<String> other = Arrays.asList("USD", "2");
+        assertSame(other, interner.intern(other));
+        assertSame(first, interner.intern(Arrays.asList("EUR", "2")));
+    }
+
+    @Test
+    public void testCollidingValuesEvictEachOther() {
+        InstanceInterner<String> interner = new InstanceInterner<>(1);
+        String a = new String("a");
+        interner.intern(a);
+        interner.intern(new String("b"));
+        String again = interner.intern(new String("a"));
+        assertEquals("a", again);
+        assertNotSame(a, again);
+    }
+
+    @Test
+    public void testNullIsReturnedAsIs() {
+        assertNull(new InstanceInterner<String>(4).intern(null));
+    }
+
+    @Test
+    public void testCapacityIsRoundedUpToAPowerOfTwo() {
+        assertEquals(1, new InstanceInterner<String>(1).capacity());
+        assertEquals(1024, new InstanceInterner<String>(1000).capacity());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCapacityMustBePositive() {
+        new InstanceInterner<String>(0);
+    }
+}
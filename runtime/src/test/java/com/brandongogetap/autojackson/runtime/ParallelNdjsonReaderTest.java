@@ -0,0 +1,92 @@
+package com.brandongogetap.autojackson.runtime;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public final class ParallelNdjsonReaderTest {
+
+    public static final class Event {
+        public long id;
+        public String name;
+    }
+
+    @Test
+    public void testValuesAreReturnedInFileOrderAcrossChunks() throws IOException {
+        int count = 50000;
+        Path path = writeEvents(count);
+        try {
+            List<Event> events = ParallelNdjsonReader.parseAll(new ObjectMapper().readerFor(Event.class), path,
+                    new ForkJoinPool(4));
+            assertEquals(count, events.size());
+            for (int i = 0; i < count; i++) {
+                assertEquals(i, events.get(i).id);
+                assertEquals("event-" + i, events.get(i).name);
+            }
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void testChunksStartAtLineBoundaries() throws IOException {
+        Path path = writeEvents(20000);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long[] boundaries = ParallelNdjsonReader.chunkBoundaries(channel, 8);
+            byte[] bytes = Files.readAllBytes(path);
+            assertEquals(0, boundaries[0]);
+            assertEquals(bytes.length, boundaries[boundaries.length - 1]);
+            for (int i = 1; i < boundaries.length - 1; i++) {
+                assertEquals('\n', bytes[(int) boundaries[i] - 1]);
+            }
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void testEmptyFileParsesToEmptyList() throws IOException {
+        Path path = Files.createTempFile("events", ".ndjson");
+        try {
+            assertEquals(0, ParallelNdjsonReader.parseAll(new ObjectMapper().readerFor(Event.class), path).size());
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void testMalformedLineFailsWithParseException() throws IOException {
+        Path path = Files.createTempFile("events", ".ndjson");
+        try {
+            Files.write(path, "{\"id\":1}\n{\"id\":\n".getBytes(Charset.forName("UTF-8")));
+            ParallelNdjsonReader.parseAll(new ObjectMapper().readerFor(Event.class), path);
+            fail();
+        } catch (JsonParseException expected) {
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    private Path writeEvents(int count) throws IOException {
+        Path path = Files.createTempFile("events", ".ndjson");
+        try (Writer writer = Files.newBufferedWriter(path, Charset.forName("UTF-8"))) {
+            for (int i = 0; i < count; i++) {
+                writer.write("{\"id\":" + i + ",\"name\":\"event-" + i + "\"}\n");
+            }
+        }
+        return path;
+    }
+}
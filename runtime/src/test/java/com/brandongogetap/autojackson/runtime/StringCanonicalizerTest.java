@@ -0,0 +1,75 @@
+package com.brandongogetap.autojackson.runtime;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public final class StringCanonicalizerTest {
+
+    @Test
+    public void testRepeatedValuesShareOneInstance() {
+        StringCanonicalizer canonicalizer = new StringCanonicalizer(16);
+        char[] buffer = "xxACTIVExxPENDINGxACTIVE".toCharArray();
+        String first = canonicalizer.canonicalize(buffer, 2, 6);
+        String second = canonicalizer.canonicalize(buffer, 18, 6);
+        assertEquals("ACTIVE", first);
+        assertSame(first, second);
+        assertEquals("PENDING", canonicalizer.canonicalize(buffer, 10, 7));
+    }
+
+    @Test
+    public void testCollidingValuesReplaceEachOther() {
+        StringCanonicalizer canonicalizer = new StringCanonicalizer(1);
+        String a = canonicalizer.canonicalize("a".toCharArray(), 0, 1);
+        assertEquals("b", canonicalizer.canonicalize("b".toCharArray(), 0, 1));
+        String again = canonicalizer.canonicalize("a".toCharArray(), 0, 1);
+        assertEquals("a", again);
+        assertNotSame(a, again);
+    }
+
+    @Test
+    public void testCapacityIsRoundedUpToAPowerOfTwo() {
+        assertEquals(1, new StringCanonicalizer(1).capacity());
+        assertEquals(256, new StringCanonicalizer(200).capacity());
+        assertEquals(256, new StringCanonicalizer(256).capacity());
+        assertEquals(1 << 16, new StringCanonicalizer(Integer.MAX_VALUE).capacity());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCapacityMustBePositive() {
+        new StringCanonicalizer(0);
+    }
+
+    @Test
+    public void testEmptyValue() {
+        StringCanonicalizer canonicalizer = new StringCanonicalizer(4);
+        assertSame(canonicalizer.canonicalize(new char[0], 0, 0), canonicalizer.canonicalize(new char[3], 1, 0));
+    }
+
+    @Test
+    public void testStringsShareInstancesWithCharacters() {
+        StringCanonicalizer canonicalizer = new StringCanonicalizer(16);
+        String value = new String("ACTIVE");
+        assertSame(value, canonicalizer.canonicalize(value));
+        assertSame(value, canonicalizer.canonicalize("ACTIVE".toCharArray(), 0, 6));
+        assertSame(value, canonicalizer.canonicalize(new String("ACTIVE")));
+    }
+
+    @Test
+    public void testParserTextIsCanonicalized() throws IOException {
+        StringCanonicalizer canonicalizer = new StringCanonicalizer(16);
+        JsonParser parser = new JsonFactory().createParser("[\"eu-west\",\"eu-west\"]");
+        parser.nextToken();
+        parser.nextToken();
+        String first = canonicalizer.canonicalize(parser);
+        parser.nextToken();
+        assertSame(first, canonicalizer.canonicalize(parser));
+        assertEquals("eu-west", first);
+    }
+}